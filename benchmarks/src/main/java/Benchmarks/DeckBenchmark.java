@@ -0,0 +1,82 @@
+package Benchmarks;
+
+import Core.AIPlayer;
+import Core.Card;
+import Core.Deck;
+import Core.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of shuffling, dealing and drawing from the wall.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+    private final Deck deck = new Deck(new SplittableRandom(1720L));
+    private final byte[] wall = new byte[Deck.SIZE];
+    private final Player[] seats = new Player[4];
+
+    @Setup
+    public void setUp() {
+        deck.copyWall(wall);
+        for (int i = 0; i < seats.length; i++) {
+            seats[i] = new AIPlayer("AI " + i);
+        }
+    }
+
+    /** Fisher-Yates over the full wall of 108 tiles. */
+    @Benchmark
+    public void shuffle() {
+        deck.shuffle();
+    }
+
+    /** Drawing the whole wall as Cards, per tile drawn. */
+    @Benchmark
+    @OperationsPerInvocation(Deck.SIZE)
+    public void drawCard(Blackhole bh) {
+        deck.setWall(wall);
+        Card card;
+        while ((card = deck.drawCard()) != null) {
+            bh.consume(card);
+        }
+    }
+
+    /** Drawing the whole wall as tile ids, per tile drawn. */
+    @Benchmark
+    @OperationsPerInvocation(Deck.SIZE)
+    public void drawTile(Blackhole bh) {
+        deck.setWall(wall);
+        int tile;
+        while ((tile = deck.drawTile()) >= 0) {
+            bh.consume(tile);
+        }
+    }
+
+    /** Reshuffling and dealing the opening hands of four seats. */
+    @Benchmark
+    public void resetAndDeal() {
+        for (Player p : seats) {
+            p.clearHand();
+        }
+        deck.reset();
+        deck.deal(seats);
+    }
+}
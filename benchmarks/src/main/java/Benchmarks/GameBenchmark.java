@@ -0,0 +1,53 @@
+package Benchmarks;
+
+import Core.AIPlayer;
+import Core.Game;
+import Core.GameResult;
+import Core.Simulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput in hands per second. Every invocation plays a freshly shuffled hand,
+ * so the score is an average over many deals.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    private Game game;
+    private Simulator simulator;
+
+    @Setup
+    public void setUp() {
+        game = new Game(1720L);
+        simulator = new Simulator(1720L,
+                new AIPlayer("AI 0"), new AIPlayer("AI 1"), new AIPlayer("AI 2"), new AIPlayer("AI 3"));
+    }
+
+    /** A whole {@link Game} hand: deal, turns, claims on every discard and scoring. */
+    @Benchmark
+    public int game() {
+        game.startGame();
+        return game.getWinner();
+    }
+
+    /** A whole {@link Simulator} hand, which skips claims, events and listeners. */
+    @Benchmark
+    public GameResult simulator() {
+        return simulator.playHand();
+    }
+}
@@ -0,0 +1,135 @@
+package Benchmarks;
+
+import Core.AIPlayer;
+import Core.Card;
+import Core.Deck;
+import Core.Player;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Kinds of hands to benchmark the rule checks on. Each hand is 13 concealed tiles plus a probe
+ * tile (a discard to test it against), generated from a fixed seed so that every run measures
+ * the same hands.
+ */
+public enum HandCorpus {
+    /** 14 tiles off a shuffled wall; almost never a win. */
+    RANDOM,
+    /** A winning hand with one tile taken out; half of the probes are that tile, half are random. */
+    NEAR_WIN,
+    /** Seven pairs with one tile taken out, probed with that tile. */
+    SEVEN_PAIRS,
+    /** A winning hand of a single suit with one tile taken out, probed with that tile. */
+    ONE_SUIT;
+
+    /** Number of hands in each corpus. */
+    public static final int SIZE = 1024;
+
+    private static final long SEED = 1720L;
+
+    /**
+     * Generates the corpus.
+     *
+     * @param hands  receives SIZE players holding the 13-tile hands
+     * @param probes receives SIZE probe tiles
+     */
+    public void generate(Player[] hands, Card[] probes) {
+        SplittableRandom random = new SplittableRandom(SEED + ordinal());
+        Deck deck = new Deck(random);
+        byte[] counts = new byte[Card.TYPES];
+        for (int i = 0; i < SIZE; i++) {
+            int probe;
+            switch (this) {
+                case RANDOM:
+                    deck.reset();
+                    Arrays.fill(counts, (byte) 0);
+                    for (int k = 0; k < 13; k++) {
+                        counts[deck.drawTile()]++;
+                    }
+                    probe = deck.drawTile();
+                    break;
+                case NEAR_WIN:
+                    winningHand(random, counts, -1);
+                    probe = takeOne(random, counts);
+                    if ((i & 1) != 0) {
+                        do {
+                            probe = random.nextInt(Card.TYPES);
+                        } while (counts[probe] == Card.COPIES);
+                    }
+                    break;
+                case SEVEN_PAIRS:
+                    sevenPairs(random, counts);
+                    probe = takeOne(random, counts);
+                    break;
+                default:
+                    winningHand(random, counts, random.nextInt(Card.SUITS.length));
+                    probe = takeOne(random, counts);
+                    break;
+            }
+            Player player = new AIPlayer("Hand " + i);
+            player.setHandCounts(counts);
+            hands[i] = player;
+            probes[i] = Card.of(probe);
+        }
+    }
+
+    /**
+     * Fills counts with four sets and a pair, all from the given suit or from any suit if it is -1.
+     */
+    private static void winningHand(SplittableRandom random, byte[] counts, int suit) {
+        while (true) {
+            Arrays.fill(counts, (byte) 0);
+            for (int set = 0; set < 4; set++) {
+                int base = 9 * (suit >= 0 ? suit : random.nextInt(3));
+                if (random.nextInt(3) == 0) {
+                    counts[base + random.nextInt(9)] += 3;
+                } else {
+                    int start = base + random.nextInt(7);
+                    counts[start]++;
+                    counts[start + 1]++;
+                    counts[start + 2]++;
+                }
+            }
+            counts[9 * (suit >= 0 ? suit : random.nextInt(3)) + random.nextInt(9)] += 2;
+            if (withinCopies(counts)) {
+                return;
+            }
+        }
+    }
+
+    private static void sevenPairs(SplittableRandom random, byte[] counts) {
+        while (true) {
+            Arrays.fill(counts, (byte) 0);
+            for (int pair = 0; pair < 7; pair++) {
+                counts[random.nextInt(Card.TYPES)] += 2;
+            }
+            if (withinCopies(counts)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean withinCopies(byte[] counts) {
+        for (byte c : counts) {
+            if (c > Card.COPIES) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes a random tile of a 14-tile hand and returns its id.
+     */
+    private static int takeOne(SplittableRandom random, byte[] counts) {
+        int n = random.nextInt(14);
+        for (int t = 0; ; t++) {
+            n -= counts[t];
+            if (n < 0) {
+                counts[t]--;
+                return t;
+            }
+        }
+    }
+}
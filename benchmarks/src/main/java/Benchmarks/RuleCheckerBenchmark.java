@@ -0,0 +1,118 @@
+package Benchmarks;
+
+import Core.AIPlayer;
+import Core.Card;
+import Core.HuEngine;
+import Core.Player;
+import Core.RuleChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one rule check, averaged over a whole {@link HandCorpus} per invocation so that the
+ * branch predictor cannot learn a single hand.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleCheckerBenchmark {
+    @Param({"RANDOM", "NEAR_WIN", "SEVEN_PAIRS", "ONE_SUIT"})
+    public HandCorpus corpus;
+
+    private final RuleChecker ruleChecker = new RuleChecker();
+    private final Player[] hands = new Player[HandCorpus.SIZE];
+    private final Card[] probes = new Card[HandCorpus.SIZE];
+    // The same hands with the probe added: 14 tiles, as after a draw.
+    private final Player[] fullHands = new Player[HandCorpus.SIZE];
+    private final byte[][] fullCounts = new byte[HandCorpus.SIZE][];
+
+    @Setup
+    public void setUp() {
+        corpus.generate(hands, probes);
+        for (int i = 0; i < hands.length; i++) {
+            byte[] counts = new byte[Card.TYPES];
+            hands[i].copyTileCounts(counts);
+            counts[probes[i].getId()]++;
+            fullCounts[i] = counts;
+            fullHands[i] = new AIPlayer("Full hand " + i);
+            fullHands[i].setHandCounts(counts);
+        }
+    }
+
+    /**
+     * A discard answered from the player's waits. The waits are cached until the hand changes,
+     * so each operation first draws and discards the probe: that dirties the probe's suit, and
+     * the check re-evaluates it as it does after every real discard. The draw and discard are
+     * part of the measured cost.
+     */
+    @Benchmark
+    @OperationsPerInvocation(HandCorpus.SIZE)
+    public void validateHu(Blackhole bh) {
+        for (int i = 0; i < hands.length; i++) {
+            Player hand = hands[i];
+            Card probe = probes[i];
+            hand.drawCard(probe);
+            hand.discardCard(probe);
+            bh.consume(ruleChecker.validateHu(hand, probe));
+        }
+    }
+
+    /** A self-drawn win: the 14-tile hand is packed into suit keys and looked up on every call. */
+    @Benchmark
+    @OperationsPerInvocation(HandCorpus.SIZE)
+    public void validateHuSelfDrawn(Blackhole bh) {
+        for (int i = 0; i < fullHands.length; i++) {
+            bh.consume(ruleChecker.validateHu(fullHands[i], null));
+        }
+    }
+
+    /** The table lookups alone, on the same 14-tile counts, without a Player. */
+    @Benchmark
+    @OperationsPerInvocation(HandCorpus.SIZE)
+    public void huEngine(Blackhole bh) {
+        for (int i = 0; i < fullCounts.length; i++) {
+            bh.consume(HuEngine.isHu(fullCounts[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HandCorpus.SIZE)
+    public void validatePeng(Blackhole bh) {
+        for (int i = 0; i < hands.length; i++) {
+            bh.consume(ruleChecker.validatePeng(hands[i], probes[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HandCorpus.SIZE)
+    public void validateGang(Blackhole bh) {
+        for (int i = 0; i < hands.length; i++) {
+            bh.consume(ruleChecker.validateGang(hands[i], probes[i]));
+        }
+    }
+
+    /** The concealed-Gang check, which scans the whole hand instead of one tile. */
+    @Benchmark
+    @OperationsPerInvocation(HandCorpus.SIZE)
+    public void validateConcealedGang(Blackhole bh) {
+        for (int i = 0; i < hands.length; i++) {
+            bh.consume(ruleChecker.validateGang(hands[i], null));
+        }
+    }
+}
@@ -1,43 +1,220 @@
 package Assets;
 
+import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * 全局共享的贴图缓存（线程安全）。
+ * 每个 PNG 只解码一次，并按渲染尺寸预先缩放；界面组件通过构造函数注入同一个实例，
+ * 刷新手牌时不再做任何 I/O 或解码。
+ * 贴图可以在后台线程池中并行加载，加载完成的牌面陆续写入纹理图集，界面无需等待。
+ */
 public class AssetsManager {
-    private Map<String, ImageIcon> tileImages;
+    /** 手牌贴图尺寸 */
+    public static final int HAND_TILE_WIDTH = 48;
+    public static final int HAND_TILE_HEIGHT = 64;
+    /** 出牌区贴图尺寸 */
+    public static final int DISCARD_TILE_WIDTH = 30;
+    public static final int DISCARD_TILE_HEIGHT = 40;
+    /** 碰/杠/胡/过 提示图标尺寸 */
+    public static final int PROMPT_ICON_SIZE = 48;
 
-    public AssetsManager() {
-        tileImages = new HashMap<>();
+    private static final String ASSET_DIR = "/Assets/mahjong/";
+    private static final String[] SUITS = {"Wan", "Tiao", "Tong"};
+    private static final String[] PROMPTS = {"Peng", "Gang", "Hu", "Pass"};
+    private static final AssetsManager INSTANCE = new AssetsManager();
+
+    // 原始解码结果，按文件名缓存
+    private final Map<String, BufferedImage> sourceImages;
+    // 缩放后的贴图，键为 "文件名@宽x高"
+    private final Map<String, ImageIcon> scaledIcons;
+    // 打包后的纹理图集，第一次使用时生成
+    private volatile TileAtlas tileAtlas;
+    // 后台加载任务，只启动一次
+    private CompletableFuture<Void> backgroundLoad;
+
+    private AssetsManager() {
+        sourceImages = new ConcurrentHashMap<>();
+        scaledIcons = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 获取进程内唯一的贴图缓存
+     */
+    public static AssetsManager getInstance() {
+        return INSTANCE;
     }
 
     /**
-     * 加载所有麻将牌贴图，文件位于 /Assets/mahjong/ 下
+     * 预加载所有麻将牌贴图（手牌与出牌区两种尺寸）以及提示图标，文件位于 /Assets/mahjong/ 下
      * 文件名格式为 "Wan1.png" ... "Wan9.png", "Tiao1.png" ... "Tiao9.png", "Tong1.png" ... "Tong9.png"
+     * 重复调用不会重新解码
      */
     public void loadAssets() {
-        String[] suits = {"Wan", "Tiao", "Tong"};
-        for (String suit : suits) {
-            for (int i = 1; i <= 9; i++) {
-                String key = suit + i;
-                String filename = "/Assets/mahjong/" + key + ".png";
-                ImageIcon icon = new ImageIcon(getClass().getResource(filename));
-                tileImages.put(key, icon);
-                // 若加载失败，可打印提示
-                if (icon.getImageLoadStatus() != java.awt.MediaTracker.COMPLETE) {
-                    System.out.println("加载贴图失败: " + filename);
-                }
-            }
+        for (int id = 0; id < 27; id++) {
+            getHandTile(id);
+            getDiscardTile(id);
+        }
+        for (String name : PROMPTS) {
+            getPromptIcon(name);
         }
     }
 
     /**
-     * 根据牌花色和数字获取对应的贴图
+     * 在后台线程池中并行加载全部贴图，每张牌加载完成后立即写入纹理图集。
+     * 重复调用返回同一个任务。
+     * @return 全部贴图加载完成时结束的任务
+     */
+    public synchronized CompletableFuture<Void> loadAssetsAsync() {
+        if (backgroundLoad != null) {
+            return backgroundLoad;
+        }
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        ExecutorService loader = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-loader");
+            t.setDaemon(true);
+            return t;
+        });
+        TileAtlas atlas = getTileAtlas();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int id = 0; id < 27; id++) {
+            int tileId = id;
+            tasks.add(CompletableFuture.runAsync(
+                    () -> atlas.putTile(tileId, getHandTile(tileId), getDiscardTile(tileId)), loader));
+        }
+        for (int i = 0; i < PROMPTS.length; i++) {
+            int index = i;
+            tasks.add(CompletableFuture.runAsync(
+                    () -> atlas.putPrompt(index, getPromptIcon(PROMPTS[index])), loader));
+        }
+        // 任务已全部提交，线程在队列清空后退出
+        loader.shutdown();
+        backgroundLoad = CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+        return backgroundLoad;
+    }
+
+    /**
+     * 根据牌花色和数字获取对应的手牌贴图
      * @param suit   "Wan", "Tiao", "Tong"
      * @param number 牌号 1-9
      * @return 对应的 ImageIcon 对象
      */
     public ImageIcon getTileImage(String suit, int number) {
-        return tileImages.get(suit + number);
+        return getIcon(suit + number, HAND_TILE_WIDTH, HAND_TILE_HEIGHT);
+    }
+
+    /**
+     * 按牌编号 (0-26) 获取手牌尺寸的贴图
+     */
+    public ImageIcon getHandTile(int tileId) {
+        return getIcon(tileName(tileId), HAND_TILE_WIDTH, HAND_TILE_HEIGHT);
+    }
+
+    /**
+     * 按牌编号 (0-26) 获取出牌区尺寸的贴图
+     */
+    public ImageIcon getDiscardTile(int tileId) {
+        return getIcon(tileName(tileId), DISCARD_TILE_WIDTH, DISCARD_TILE_HEIGHT);
+    }
+
+    /**
+     * 获取提示图标
+     * @param name "Peng", "Gang", "Hu" 或 "Pass"
+     */
+    public ImageIcon getPromptIcon(String name) {
+        return getIcon(name, PROMPT_ICON_SIZE, PROMPT_ICON_SIZE);
+    }
+
+    /**
+     * 牌面图片的资源路径，例如 "/Assets/mahjong/Wan1.png"
+     * @param tileId 牌编号 0-26
+     */
+    public static String getImagePath(int tileId) {
+        return ASSET_DIR + tileName(tileId) + ".png";
+    }
+
+    /**
+     * 获取由全部牌面打包而成的纹理图集（只生成一次）。
+     * 图集创建时是空的，由 {@link #loadAssetsAsync()} 逐张填入；尚未就绪的牌面绘制为占位图。
+     */
+    public TileAtlas getTileAtlas() {
+        TileAtlas atlas = tileAtlas;
+        if (atlas == null) {
+            synchronized (this) {
+                atlas = tileAtlas;
+                if (atlas == null) {
+                    atlas = new TileAtlas();
+                    tileAtlas = atlas;
+                }
+            }
+        }
+        return atlas;
+    }
+
+    /**
+     * 获取指定尺寸的贴图；第一次请求时解码并缩放，之后直接返回缓存
+     * @return 贴图，若文件缺失则返回 null
+     */
+    public ImageIcon getIcon(String name, int width, int height) {
+        String key = name + "@" + width + "x" + height;
+        ImageIcon icon = scaledIcons.get(key);
+        if (icon != null) {
+            return icon;
+        }
+        BufferedImage source = getSourceImage(name);
+        if (source == null) {
+            return null;
+        }
+        return scaledIcons.computeIfAbsent(key, k -> new ImageIcon(scale(source, width, height)));
+    }
+
+    private BufferedImage getSourceImage(String name) {
+        BufferedImage image = sourceImages.get(name);
+        if (image != null) {
+            return image;
+        }
+        return sourceImages.computeIfAbsent(name, this::decode);
+    }
+
+    private BufferedImage decode(String name) {
+        String filename = ASSET_DIR + name + ".png";
+        try (InputStream in = getClass().getResourceAsStream(filename)) {
+            if (in != null) {
+                BufferedImage image = ImageIO.read(in);
+                if (image != null) {
+                    return image;
+                }
+            }
+        } catch (IOException e) {
+            // 落到下面的提示
+        }
+        // 若加载失败，可打印提示
+        System.out.println("加载贴图失败: " + filename);
+        return null;
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return scaled;
+    }
+
+    private static String tileName(int tileId) {
+        return SUITS[tileId / 9] + (tileId % 9 + 1);
     }
-}
\ No newline at end of file
+}
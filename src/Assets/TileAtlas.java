@@ -0,0 +1,151 @@
+package Assets;
+
+import javax.swing.ImageIcon;
+
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 纹理图集：把 27 种牌的手牌尺寸、出牌区尺寸贴图以及提示图标打包进一张图片。
+ * 绘制时只从这张图里截取对应区域，整张桌面只用一个图像源。
+ *
+ * 布局：第一行为手牌贴图，第二行为出牌区贴图，第三行为提示图标（Peng, Gang, Hu, Pass）。
+ *
+ * 图集由后台加载线程逐张填入；尚未就绪的牌面绘制为写有牌名的占位图，
+ * 每填入一张都会通知监听者重绘。
+ */
+public class TileAtlas {
+    private static final String[] PROMPTS = {"Peng", "Gang", "Hu", "Pass"};
+    private static final String[] SUIT_MARKS = {"W", "Ti", "To"};
+    private static final Color PLACEHOLDER_FACE = new Color(245, 240, 225);
+
+    private static final int HAND_ROW_Y = 0;
+    private static final int DISCARD_ROW_Y = AssetsManager.HAND_TILE_HEIGHT;
+    private static final int PROMPT_ROW_Y = DISCARD_ROW_Y + AssetsManager.DISCARD_TILE_HEIGHT;
+    private static final int PROMPT_BIT = 27;
+
+    private final BufferedImage atlas;
+    // 第 id 位表示该牌已写入图集，第 27 位起为提示图标
+    private final AtomicLong ready = new AtomicLong();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    TileAtlas() {
+        int width = 27 * AssetsManager.HAND_TILE_WIDTH;
+        int height = PROMPT_ROW_Y + AssetsManager.PROMPT_ICON_SIZE;
+        atlas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * 注册监听者，每当有贴图写入图集时调用（在加载线程上）
+     */
+    public void addReadyListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 牌面贴图是否已写入图集
+     */
+    public boolean isTileReady(int tileId) {
+        return (ready.get() & (1L << tileId)) != 0;
+    }
+
+    void putTile(int tileId, ImageIcon hand, ImageIcon discard) {
+        synchronized (atlas) {
+            Graphics2D g = atlas.createGraphics();
+            draw(g, hand, tileId * AssetsManager.HAND_TILE_WIDTH, HAND_ROW_Y);
+            draw(g, discard, tileId * AssetsManager.DISCARD_TILE_WIDTH, DISCARD_ROW_Y);
+            g.dispose();
+        }
+        markReady(tileId);
+    }
+
+    void putPrompt(int index, ImageIcon icon) {
+        synchronized (atlas) {
+            Graphics2D g = atlas.createGraphics();
+            draw(g, icon, index * AssetsManager.PROMPT_ICON_SIZE, PROMPT_ROW_Y);
+            g.dispose();
+        }
+        markReady(PROMPT_BIT + index);
+    }
+
+    private void markReady(int bit) {
+        ready.getAndUpdate(bits -> bits | (1L << bit));
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    private static void draw(Graphics2D g, ImageIcon icon, int x, int y) {
+        // 缺失的贴图留空
+        if (icon != null) {
+            g.drawImage(icon.getImage(), x, y, null);
+        }
+    }
+
+    /**
+     * 在 (x, y) 处绘制手牌尺寸的牌面
+     */
+    public void drawHandTile(Graphics g, int tileId, int x, int y) {
+        if (!isTileReady(tileId)) {
+            drawPlaceholder(g, tileId, x, y, AssetsManager.HAND_TILE_WIDTH, AssetsManager.HAND_TILE_HEIGHT);
+            return;
+        }
+        drawRegion(g, x, y, tileId * AssetsManager.HAND_TILE_WIDTH, HAND_ROW_Y,
+                AssetsManager.HAND_TILE_WIDTH, AssetsManager.HAND_TILE_HEIGHT);
+    }
+
+    /**
+     * 在 (x, y) 处绘制出牌区尺寸的牌面
+     */
+    public void drawDiscardTile(Graphics g, int tileId, int x, int y) {
+        if (!isTileReady(tileId)) {
+            drawPlaceholder(g, tileId, x, y, AssetsManager.DISCARD_TILE_WIDTH, AssetsManager.DISCARD_TILE_HEIGHT);
+            return;
+        }
+        drawRegion(g, x, y, tileId * AssetsManager.DISCARD_TILE_WIDTH, DISCARD_ROW_Y,
+                AssetsManager.DISCARD_TILE_WIDTH, AssetsManager.DISCARD_TILE_HEIGHT);
+    }
+
+    /**
+     * 在 (x, y) 处绘制提示图标，尚未加载时不绘制
+     * @param name "Peng", "Gang", "Hu" 或 "Pass"
+     */
+    public void drawPromptIcon(Graphics g, String name, int x, int y) {
+        for (int i = 0; i < PROMPTS.length; i++) {
+            if (PROMPTS[i].equals(name)) {
+                if ((ready.get() & (1L << (PROMPT_BIT + i))) != 0) {
+                    drawRegion(g, x, y, i * AssetsManager.PROMPT_ICON_SIZE, PROMPT_ROW_Y,
+                            AssetsManager.PROMPT_ICON_SIZE, AssetsManager.PROMPT_ICON_SIZE);
+                }
+                return;
+            }
+        }
+    }
+
+    private void drawRegion(Graphics g, int x, int y, int sx, int sy, int w, int h) {
+        synchronized (atlas) {
+            g.drawImage(atlas, x, y, x + w, y + h, sx, sy, sx + w, sy + h, null);
+        }
+    }
+
+    /**
+     * 占位图：浅色牌面加牌名（如 "5W"），贴图就绪后被替换
+     */
+    private static void drawPlaceholder(Graphics g, int tileId, int x, int y, int w, int h) {
+        g.setColor(PLACEHOLDER_FACE);
+        g.fillRoundRect(x, y, w - 1, h - 1, 6, 6);
+        g.setColor(Color.GRAY);
+        g.drawRoundRect(x, y, w - 1, h - 1, 6, 6);
+        String text = (tileId % 9 + 1) + SUIT_MARKS[tileId / 9];
+        FontMetrics metrics = g.getFontMetrics();
+        g.setColor(Color.DARK_GRAY);
+        g.drawString(text, x + (w - metrics.stringWidth(text)) / 2,
+                y + (h - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+}
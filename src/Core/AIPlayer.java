@@ -1,36 +1,106 @@
 package Core;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public class AIPlayer extends Player {
+    private DiscardStrategy discardStrategy;
+    private byte[] visibleTiles; // tile counts visible on the table, shared with the game
+    private List<Player> table;  // every seat, for their exposed melds
+    private ShantenCalculator claimCalculator; // created on the first Peng decision
+    private final byte[] claimCounts = new byte[Card.TYPES];
 
     public AIPlayer(String name) {
+        this(name, new EfficiencyDiscardStrategy());
+    }
+
+    public AIPlayer(String name, DiscardStrategy discardStrategy) {
         super(name, false);
+        this.discardStrategy = discardStrategy;
     }
 
     @Override
     public void playTurn() {
-        System.out.println("It's " + name + "'s turn.");
-        // Simulate a 2-second delay for AI thinking
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        eventLog.publish(GameEvent.Type.TURN, seat, -1, 0);
+        // Any thinking time is spent inside the discard strategy (see DiscardStrategy.getBudgetMillis).
         autoDiscard();
     }
 
     /**
-     * Automatically discards the rightmost card in the hand.
+     * Chooses a discard using this player's {@link DiscardStrategy}.
+     */
+    @Override
+    public Card chooseDiscard() {
+        if (handCards.isEmpty()) {
+            return null;
+        }
+        return Card.of(discardStrategy.chooseDiscard(this, visibleTiles, table));
+    }
+
+    /**
+     * Answers a discard with the discard strategy if it is also a {@link ClaimStrategy}.
+     * Otherwise answers at once: always Hu or Gang when allowed, and Peng only when the
+     * exposed set brings the hand closer to winning.
+     */
+    @Override
+    public CompletableFuture<Claim> requestClaim(int options, Card card, int fromSeat) {
+        if (discardStrategy instanceof ClaimStrategy) {
+            return ((ClaimStrategy) discardStrategy).chooseClaim(this, options, card.getId(), fromSeat,
+                    visibleTiles, table);
+        }
+        Claim claim = Claim.best(options);
+        if (claim == Claim.PENG && !pengImproves(card.getId())) {
+            claim = Claim.PASS;
+        }
+        return CompletableFuture.completedFuture(claim);
+    }
+
+    private boolean pengImproves(int tile) {
+        if (claimCalculator == null) {
+            claimCalculator = new ShantenCalculator();
+        }
+        copyTileCounts(claimCounts);
+        int melds = getMeldCount();
+        int before = claimCalculator.shanten(claimCounts, melds);
+        claimCounts[tile] -= 2;
+        return claimCalculator.shanten(claimCounts, melds + 1) < before;
+    }
+
+    public DiscardStrategy getDiscardStrategy() {
+        return discardStrategy;
+    }
+
+    public void setDiscardStrategy(DiscardStrategy discardStrategy) {
+        this.discardStrategy = discardStrategy;
+    }
+
+    /**
+     * Gives the player the table's visible tile counts (discards and exposed melds).
+     * The array is owned and updated by the game; the player only reads it.
+     */
+    public void setVisibleTiles(byte[] visibleTiles) {
+        this.visibleTiles = visibleTiles;
+    }
+
+    /**
+     * Gives the player every seat at the table, indexed by seat, so that its strategy can see
+     * the other seats' exposed melds. Set by the game.
+     */
+    public void setTable(List<Player> table) {
+        this.table = table;
+    }
+
+    /**
+     * Automatically discards the card chosen by {@link #chooseDiscard()}.
      * @return The card that was discarded.
      */
     public Card autoDiscard() {
-        if (!handCards.isEmpty()) {
-            // Discard the last card in the hand (rightmost card)
-            Card card = handCards.get(handCards.size() - 1);
+        Card card = chooseDiscard();
+        if (card != null) {
             discardCard(card);
-            System.out.println(name + " auto-discarded: " + card);
             return card;
         }
-        System.out.println(name + " has no card to discard.");
+        eventLog.publish(GameEvent.Type.INVALID_DISCARD, seat, -1, 0);
         return null;
     }
 }
\ No newline at end of file
@@ -1,38 +1,104 @@
 package Core;
 
-import javax.swing.ImageIcon;
+/**
+ * An immutable tile type. There is exactly one shared Card per tile type, obtained through
+ * {@link #of(int)} or {@link #of(String, int)}, so cards can be compared by reference or by id.
+ *
+ * Tile ids are 0-26: Wan 1-9 are 0-8, Tiao 1-9 are 9-17 and Tong 1-9 are 18-26.
+ * When the physical copy matters (each type has 4 copies), a physical id is id * 4 + copy (0-107).
+ */
+public final class Card {
+    /** Number of distinct tile types. */
+    public static final int TYPES = 27;
+    /** Number of physical copies of each tile type. */
+    public static final int COPIES = 4;
+    /** Suit names in id order. */
+    public static final String[] SUITS = {"Wan", "Tiao", "Tong"};
 
-public class Card {
-    private String suit;      // "Wan", "Tiao", "Tong"
-    private int number;       // 1-9
-    private String imagePath; // image path
-    private boolean isSelected;
+    private static final Card[] CARDS = new Card[TYPES];
 
-    public Card(String suit, int number, String imagePath) {
-        this.suit = suit;
-        this.number = number;
-        this.imagePath = imagePath;
-        this.isSelected = false;
+    static {
+        for (int id = 0; id < TYPES; id++) {
+            CARDS[id] = new Card(id);
+        }
     }
 
-    public String getSuit() {
-        return suit;
+    private final byte id;
+    private final String suit;      // "Wan", "Tiao", "Tong"
+    private final int number;       // 1-9
+
+    private Card(int id) {
+        this.id = (byte) id;
+        this.suit = SUITS[id / 9];
+        this.number = id % 9 + 1;
     }
 
-    public int getNumber() {
-        return number;
+    /**
+     * Returns the shared card for a tile id.
+     * @param id the tile id, 0-26
+     * @return the card for that tile type
+     */
+    public static Card of(int id) {
+        return CARDS[id];
+    }
+
+    /**
+     * Returns the shared card for a suit and number.
+     * @param suit   "Wan", "Tiao" or "Tong"
+     * @param number 1-9
+     * @return the card for that tile type
+     */
+    public static Card of(String suit, int number) {
+        return CARDS[idOf(suit, number)];
+    }
+
+    /**
+     * Returns the tile id for a suit and number.
+     * @param suit   "Wan", "Tiao" or "Tong"
+     * @param number 1-9
+     * @return the tile id, 0-26
+     */
+    public static int idOf(String suit, int number) {
+        if (number < 1 || number > 9) {
+            throw new IllegalArgumentException("Tile number out of range: " + number);
+        }
+        for (int s = 0; s < SUITS.length; s++) {
+            if (SUITS[s].equals(suit)) {
+                return s * 9 + number - 1;
+            }
+        }
+        throw new IllegalArgumentException("Unknown suit: " + suit);
     }
 
-    public String getImagePath() {
-        return imagePath;
+    /**
+     * Returns the physical id of one copy of a tile type.
+     * @param id   the tile id, 0-26
+     * @param copy the copy index, 0-3
+     * @return the physical id, 0-107
+     */
+    public static int physicalId(int id, int copy) {
+        return id * COPIES + copy;
     }
 
-    public boolean isSelected() {
-        return isSelected;
+    /**
+     * Returns the tile id of a physical tile.
+     * @param physicalId the physical id, 0-107
+     * @return the tile id, 0-26
+     */
+    public static int idOfPhysical(int physicalId) {
+        return physicalId / COPIES;
     }
 
-    public void setSelected(boolean selected) {
-        this.isSelected = selected;
+    public int getId() {
+        return id;
+    }
+
+    public String getSuit() {
+        return suit;
+    }
+
+    public int getNumber() {
+        return number;
     }
 
     @Override
@@ -47,13 +113,11 @@ public class Card {
         if (obj == null || getClass() != obj.getClass())
             return false;
         Card other = (Card) obj;
-        return number == other.number && suit.equals(other.suit);
+        return id == other.id;
     }
 
     @Override
     public int hashCode() {
-        int result = suit != null ? suit.hashCode() : 0;
-        result = 31 * result + number;
-        return result;
+        return id;
     }
 }
\ No newline at end of file
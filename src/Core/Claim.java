@@ -0,0 +1,43 @@
+package Core;
+
+/**
+ * A seat's answer to another seat's discard. Declared in increasing priority:
+ * Hu beats Gang and Peng, and several seats may Hu on the same discard.
+ *
+ * A seat's options are kept as a bit mask of {@link #bit()} values, so they can be
+ * computed and passed around without allocating.
+ */
+public enum Claim {
+    PASS,
+    PENG,
+    GANG,
+    HU;
+
+    private static final Claim[] VALUES = values();
+
+    /**
+     * Returns this claim's bit in an options mask; PASS is always allowed and has no bit.
+     */
+    public int bit() {
+        return this == PASS ? 0 : 1 << ordinal();
+    }
+
+    /**
+     * Returns true if the options mask allows this claim.
+     */
+    public boolean isAllowed(int options) {
+        return this == PASS || (options & bit()) != 0;
+    }
+
+    /**
+     * Returns the highest-priority claim in an options mask, or PASS for an empty mask.
+     */
+    public static Claim best(int options) {
+        for (int i = VALUES.length - 1; i > 0; i--) {
+            if ((options & VALUES[i].bit()) != 0) {
+                return VALUES[i];
+            }
+        }
+        return PASS;
+    }
+}
@@ -0,0 +1,114 @@
+package Core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settles who may take a discard.
+ *
+ * {@link #computeOptions} finds every seat's Peng, Gang and Hu options in one pass over the
+ * seats: Peng and Gang from a tile count, Hu from the seat's {@link Player#getWaits() waits}.
+ * {@link #collect} then asks only the seats that have options, all at once: each answer is a
+ * future, so an AI seat answers immediately while a human seat answers when the user clicks.
+ * Every future is cut off by the timeout (counting as a pass), and the result completes as
+ * soon as the last seat has answered, without waiting for a fixed delay.
+ * {@link Game#resolveClaims} then applies Sichuan priority to the answers.
+ */
+public class ClaimArbiter {
+    /** Default time a seat has to answer a discard. */
+    public static final long DEFAULT_TIMEOUT_MS = 5000;
+
+    private volatile long timeoutMs;
+
+    public ClaimArbiter() {
+        this(DEFAULT_TIMEOUT_MS);
+    }
+
+    /**
+     * @param timeoutMs how long to wait for a seat's answer before treating it as a pass
+     */
+    public ClaimArbiter(long timeoutMs) {
+        setTimeout(timeoutMs);
+    }
+
+    public long getTimeout() {
+        return timeoutMs;
+    }
+
+    public void setTimeout(long timeoutMs) {
+        if (timeoutMs < 0) {
+            throw new IllegalArgumentException("Negative timeout: " + timeoutMs);
+        }
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Fills in every seat's options on a discard, as {@link Claim#bit()} masks.
+     * The discarder has none; Peng and Gang need a tile left on the wall to play on.
+     *
+     * @param players   the seats
+     * @param discarder the seat that discarded
+     * @param tile      the discarded tile id
+     * @param wallLeft  true if the wall is not empty
+     * @param options   receives one mask per seat
+     * @return the union of all seats' options, 0 if nobody can claim
+     */
+    public int computeOptions(List<Player> players, int discarder, int tile, boolean wallLeft, int[] options) {
+        int tileBit = 1 << tile;
+        int any = 0;
+        for (int seat = 0; seat < players.size(); seat++) {
+            int mask = 0;
+            if (seat != discarder) {
+                Player p = players.get(seat);
+                int count = p.countOf(tile);
+                if (count >= 2 && wallLeft) {
+                    mask |= Claim.PENG.bit();
+                    if (count == 3) {
+                        mask |= Claim.GANG.bit();
+                    }
+                }
+                if ((p.getWaits() & tileBit) != 0) {
+                    mask |= Claim.HU.bit();
+                }
+            }
+            options[seat] = mask;
+            any |= mask;
+        }
+        return any;
+    }
+
+    /**
+     * Asks every seat with options for its answer, concurrently.
+     *
+     * @param players   the seats
+     * @param discarder the seat that discarded
+     * @param card      the discarded tile
+     * @param options   each seat's options, from {@link #computeOptions}
+     * @return a future for one answer per seat (PASS for seats without options, seats that
+     *         timed out or failed, and answers outside a seat's options)
+     */
+    public CompletableFuture<Claim[]> collect(List<Player> players, int discarder, Card card, int[] options) {
+        Claim[] answers = new Claim[players.size()];
+        Arrays.fill(answers, Claim.PASS);
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[answers.length];
+        int asked = 0;
+        long timeout = timeoutMs;
+        for (int seat = 0; seat < answers.length; seat++) {
+            int mask = options[seat];
+            if (mask == 0) {
+                continue;
+            }
+            int s = seat;
+            pending[asked++] = players.get(seat).requestClaim(mask, card, discarder)
+                    .completeOnTimeout(Claim.PASS, timeout, TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> Claim.PASS)
+                    .thenAccept(claim -> answers[s] = claim != null && claim.isAllowed(mask) ? claim : Claim.PASS);
+        }
+        if (asked == 0) {
+            return CompletableFuture.completedFuture(answers);
+        }
+        return CompletableFuture.allOf(Arrays.copyOf(pending, asked)).thenApply(v -> answers);
+    }
+}
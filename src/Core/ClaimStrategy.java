@@ -0,0 +1,26 @@
+package Core;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decides whether an AI player claims another seat's discard. A {@link DiscardStrategy} that
+ * also implements this interface answers the claims of the {@link AIPlayer} using it;
+ * otherwise the player takes Hu and Gang and only Pengs when it lowers the shanten.
+ */
+public interface ClaimStrategy {
+    /**
+     * Chooses an answer to a discard. The inputs are only read before this returns, so the
+     * answer may be worked out on another thread.
+     *
+     * @param player   the player deciding
+     * @param options  the allowed claims, as a mask of {@link Claim#bit()} values
+     * @param tile     the discarded tile id
+     * @param fromSeat the seat that discarded it
+     * @param visible  27 counts of tiles visible on the table (discards and exposed melds), or null
+     * @param table    every player, indexed by seat, for their exposed melds; or null
+     * @return a future for the chosen claim; a claim outside the options counts as PASS
+     */
+    CompletableFuture<Claim> chooseClaim(Player player, int options, int tile, int fromSeat,
+                                         byte[] visible, List<Player> table);
+}
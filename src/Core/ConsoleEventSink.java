@@ -0,0 +1,20 @@
+package Core;
+
+/**
+ * Prints each game event to standard output as a readable line.
+ */
+public class ConsoleEventSink implements GameEventSink {
+    private final String[] seatNames;
+
+    /**
+     * @param seatNames player names indexed by seat
+     */
+    public ConsoleEventSink(String... seatNames) {
+        this.seatNames = seatNames.clone();
+    }
+
+    @Override
+    public void onEvent(long event) {
+        System.out.println(GameEvent.format(event, seatNames));
+    }
+}
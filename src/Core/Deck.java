@@ -1,32 +1,134 @@
 package Core;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
 
+/**
+ * The wall of 108 tiles, held as a fixed array of tile ids.
+ *
+ * Drawing never moves tiles: normal draws advance a head cursor from the top, and gang
+ * replacement draws pull a tail cursor back from the bottom. The array always holds all
+ * 108 tiles, so {@link #reset()} only rewinds the cursors and reshuffles in place.
+ */
 public class Deck {
-    private List<Card> cards;
+    /** Total number of tiles in a Sichuan set (27 types, 4 copies each). */
+    public static final int SIZE = Card.TYPES * Card.COPIES;
+
+    private final byte[] tiles; // tile ids, top of the deck first
+    private int head;           // index of the next tile drawn from the top
+    private int tail;           // one past the next tile drawn from the bottom
+    private RandomGenerator random;
 
     public Deck() {
-        cards = new ArrayList<>();
-        // Generate 108 cards: for each suit ("Wan", "Tiao", "Tong"), numbers 1-9, 4 copies each.
-        String[] suits = {"Wan", "Tiao", "Tong"};
-        for (String suit : suits) {
-            for (int number = 1; number <= 9; number++) {
-                for (int i = 0; i < 4; i++) {
-                    // Construct image path, e.g., "/Assets/mahjong/Wan1.png"
-                    String imagePath = "/Assets/mahjong/" + suit + number + ".png";
-                    cards.add(new Card(suit, number, imagePath));
-                }
-            }
+        this(new Random());
+    }
+
+    /**
+     * Creates an unshuffled deck that shuffles with the given random source.
+     * @param random the random source, e.g. a seeded SplittableRandom for repeatable deals.
+     */
+    public Deck(RandomGenerator random) {
+        tiles = new byte[SIZE];
+        // Generate 108 tiles: for each tile id 0-26, 4 copies each.
+        for (int physical = 0; physical < SIZE; physical++) {
+            tiles[physical] = (byte) Card.idOfPhysical(physical);
         }
+        head = 0;
+        tail = SIZE;
+        this.random = random;
+    }
+
+    /**
+     * Replaces the random source used by {@link #shuffle()} and {@link #reset()}.
+     */
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Puts every drawn tile back and reshuffles the full wall in place.
+     */
+    public void reset() {
+        head = 0;
+        tail = SIZE;
+        shuffle();
+    }
+
+    /**
+     * Puts every tile back in the given order instead of shuffling, e.g. to replay a recorded hand.
+     * @param wall 108 tile ids, top of the deck first
+     */
+    public void setWall(byte[] wall) {
+        if (wall.length != SIZE) {
+            throw new IllegalArgumentException("A wall has " + SIZE + " tiles, not " + wall.length);
+        }
+        System.arraycopy(wall, 0, tiles, 0, SIZE);
+        head = 0;
+        tail = SIZE;
+    }
+
+    /**
+     * Moves the draw cursors, e.g. when restoring a GameState.
+     * @param head index of the next tile drawn from the top
+     * @param tail one past the next tile drawn from the bottom
+     */
+    void setCursors(int head, int tail) {
+        this.head = head;
+        this.tail = tail;
+    }
+
+    int getHead() {
+        return head;
+    }
+
+    int getTail() {
+        return tail;
+    }
+
+    /**
+     * Copies the order of the whole wall, drawn tiles included, top of the deck first.
+     * @param dest an array of at least 108 entries
+     */
+    public void copyWall(byte[] dest) {
+        System.arraycopy(tiles, 0, dest, 0, SIZE);
     }
 
     /**
-     * Shuffles the deck.
+     * Shuffles the tiles remaining in the deck.
      */
     public void shuffle() {
-        Collections.shuffle(cards);
+        shuffle(random);
+    }
+
+    /**
+     * Shuffles the tiles remaining in the deck with the given random source (Fisher-Yates).
+     * @param random the random source to shuffle with.
+     */
+    public void shuffle(RandomGenerator random) {
+        for (int i = tail - 1; i > head; i--) {
+            int j = head + random.nextInt(i - head + 1);
+            byte tmp = tiles[i];
+            tiles[i] = tiles[j];
+            tiles[j] = tmp;
+        }
+    }
+
+    /**
+     * Deals the opening hands in one pass: 13 tiles to every player, plus one extra
+     * tile to the dealer (the first player).
+     * @param players the players in seat order; players[0] is the dealer.
+     */
+    public void deal(Player[] players) {
+        int needed = 13 * players.length + 1;
+        if (tail - head < needed) {
+            throw new IllegalStateException("Not enough tiles left to deal " + players.length + " hands");
+        }
+        // The wall is shuffled, so contiguous blocks deal the same as going round the table.
+        for (int i = 0; i < players.length; i++) {
+            int count = i == 0 ? 14 : 13;
+            players[i].dealTiles(tiles, head, count);
+            head += count;
+        }
     }
 
     /**
@@ -34,10 +136,19 @@ public class Deck {
      * @return the drawn card, or null if the deck is empty.
      */
     public Card drawCard() {
-        if (!cards.isEmpty()) {
-            return cards.remove(0);
+        int id = drawTile();
+        return id >= 0 ? Card.of(id) : null;
+    }
+
+    /**
+     * Draws a tile id from the top of the deck.
+     * @return the drawn tile id, or -1 if the deck is empty.
+     */
+    public int drawTile() {
+        if (head < tail) {
+            return tiles[head++];
         }
-        return null;
+        return -1;
     }
 
     /**
@@ -46,8 +157,8 @@ public class Deck {
      * @return the drawn card, or null if the deck is empty.
      */
     public Card drawLastCard() {
-        if (!cards.isEmpty()) {
-            return cards.remove(cards.size() - 1);
+        if (head < tail) {
+            return Card.of(tiles[--tail]);
         }
         return null;
     }
@@ -57,7 +168,7 @@ public class Deck {
      * @return true if the deck has no cards left.
      */
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return head == tail;
     }
 
     /**
@@ -65,6 +176,6 @@ public class Deck {
      * @return the count of remaining cards.
      */
     public int remainingCards() {
-        return cards.size();
+        return tail - head;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package Core;
+
+/**
+ * Notified by a {@link DiscardPile} as tiles are played, so views can update incrementally.
+ * Callbacks run on the thread that changes the pile.
+ */
+public interface DiscardListener {
+    /**
+     * Called after a tile has been appended to the pile.
+     *
+     * @param seat      the seat that discarded the tile
+     * @param card      the discarded tile
+     * @param seatIndex the tile's position among that seat's discards, starting at 0
+     */
+    void discardAdded(int seat, Card card, int seatIndex);
+
+    /**
+     * Called after the pile has been emptied for a new hand.
+     */
+    void discardsCleared();
+}
@@ -0,0 +1,96 @@
+package Core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The tiles discarded during a hand, in the order they were played.
+ * The pile is append-only until it is cleared, and listeners hear about each tile as it is added,
+ * so a view never has to rebuild the whole history.
+ */
+public class DiscardPile {
+    private final byte[] tiles = new byte[Deck.SIZE];
+    private final byte[] seats = new byte[Deck.SIZE];
+    private final int[] seatCounts;
+    private final List<DiscardListener> listeners = new CopyOnWriteArrayList<>();
+    private int size;
+    private long hash;
+
+    /**
+     * @param seatCount number of seats at the table
+     */
+    public DiscardPile(int seatCount) {
+        this.seatCounts = new int[seatCount];
+    }
+
+    public void addListener(DiscardListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(DiscardListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Appends a discarded tile and notifies the listeners.
+     */
+    public void add(int seat, Card card) {
+        tiles[size] = (byte) card.getId();
+        seats[size] = (byte) seat;
+        size++;
+        hash += Zobrist.discard(seat, card.getId());
+        int seatIndex = seatCounts[seat]++;
+        for (DiscardListener listener : listeners) {
+            listener.discardAdded(seat, card, seatIndex);
+        }
+    }
+
+    /**
+     * Empties the pile for a new hand and notifies the listeners.
+     */
+    public void clear() {
+        size = 0;
+        hash = 0;
+        Arrays.fill(seatCounts, 0);
+        for (DiscardListener listener : listeners) {
+            listener.discardsCleared();
+        }
+    }
+
+    /**
+     * Returns the number of tiles discarded so far.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index-th tile discarded.
+     */
+    public Card getCard(int index) {
+        return Card.of(tiles[index]);
+    }
+
+    /**
+     * Returns the seat that discarded the index-th tile.
+     */
+    public int getSeat(int index) {
+        return seats[index];
+    }
+
+    /**
+     * Returns a hash of which seat discarded which tiles, regardless of their order; see
+     * {@link Game#getStateHash()}.
+     */
+    public long getZobristHash() {
+        return hash;
+    }
+
+    /**
+     * Returns the number of tiles the given seat has discarded.
+     */
+    public int countFor(int seat) {
+        return seatCounts[seat];
+    }
+}
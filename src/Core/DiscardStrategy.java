@@ -0,0 +1,45 @@
+package Core;
+
+import java.util.List;
+
+/**
+ * Decides which tile an AI player discards.
+ * Implementations may keep state between calls, so each AIPlayer should have its own instance.
+ */
+public interface DiscardStrategy {
+    /**
+     * Discards the rightmost card in the hand, as the original AIPlayer did.
+     */
+    DiscardStrategy RIGHTMOST = (player, visible) -> {
+        List<Card> hand = player.getHandCards();
+        return hand.get(hand.size() - 1).getId();
+    };
+
+    /**
+     * Chooses the tile to discard. The hand is never empty when this is called.
+     *
+     * @param player  the player whose hand to choose from
+     * @param visible 27 counts of tiles visible on the table (discards and exposed melds), or null
+     * @return the tile id to discard; the player must hold at least one copy
+     */
+    int chooseDiscard(Player player, byte[] visible);
+
+    /**
+     * Chooses the tile to discard with the other seats in view, for strategies that account
+     * for their exposed melds. Only the other players' melds may be read, not their hands.
+     * The default ignores the table.
+     *
+     * @param table every player, indexed by seat; or null
+     */
+    default int chooseDiscard(Player player, byte[] visible, List<Player> table) {
+        return chooseDiscard(player, visible);
+    }
+
+    /**
+     * Returns how long the strategy thinks per decision, in milliseconds, or 0 if it answers
+     * at once. A user interface that paces AI turns only waits for whatever the budget leaves.
+     */
+    default long getBudgetMillis() {
+        return 0;
+    }
+}
@@ -0,0 +1,57 @@
+package Core;
+
+/**
+ * Discards the tile that leaves the lowest shanten, breaking ties by the number of live
+ * tiles that would improve the hand further.
+ *
+ * The strategy works on a copy of the player's counts (each candidate is removed and put back)
+ * and reuses one {@link ShantenCalculator}, whose per-suit cache means a turn only
+ * re-searches the suits that changed since the last one. Given an {@link EvaluationCache}, the
+ * candidates' shanten is looked up there first, so strategies sharing a cache (e.g. every seat
+ * of a tournament) reuse each other's work on hands that come up again.
+ */
+public class EfficiencyDiscardStrategy implements DiscardStrategy {
+    private final ShantenCalculator calculator = new ShantenCalculator();
+    private final byte[] counts = new byte[Card.TYPES];
+    private final EvaluationCache cache;
+
+    public EfficiencyDiscardStrategy() {
+        this(null);
+    }
+
+    /**
+     * @param cache the cache to look shanten up in, or null to always compute it
+     */
+    public EfficiencyDiscardStrategy(EvaluationCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public int chooseDiscard(Player player, byte[] visible) {
+        player.copyTileCounts(counts);
+        int fixedMelds = (14 - player.getHandCards().size()) / 3;
+
+        int bestTile = -1;
+        int bestShanten = Integer.MAX_VALUE;
+        int bestLive = -1;
+        for (int t = 0; t < Card.TYPES; t++) {
+            if (counts[t] == 0) {
+                continue;
+            }
+            counts[t]--;
+            int shanten = cache != null ? cache.shanten(counts, fixedMelds) : calculator.shanten(counts, fixedMelds);
+            // Only count useful tiles when the candidate can still win or tie on shanten.
+            if (shanten <= bestShanten) {
+                int mask = calculator.usefulTiles(counts, fixedMelds, shanten);
+                int live = ShantenCalculator.liveCount(counts, visible, mask);
+                if (shanten < bestShanten || live > bestLive) {
+                    bestTile = t;
+                    bestShanten = shanten;
+                    bestLive = live;
+                }
+            }
+            counts[t]++;
+        }
+        return bestTile;
+    }
+}
@@ -0,0 +1,369 @@
+package Core;
+
+import java.util.Arrays;
+
+/**
+ * A bounded cache of hand evaluations (Hu, shanten, waits and score) that any number of
+ * threads can share, e.g. the workers of a {@link Tournament} or of a simulation search.
+ *
+ * Entries are keyed by the hand's signature, its three base-5 suit keys packed into one long
+ * ({@link #signature}), plus a second long holding what else the result depends on (the kind of
+ * result, the number of exposed melds, the meld summary and situation of a score). The keys are
+ * spread over a power-of-two number of segments behind their own locks, so threads only contend
+ * when they touch the same segment. A segment keeps its entries in parallel primitive arrays,
+ * and an entry may sit in any of the four slots from the one its key hashes to; when all four
+ * are taken, the least recently used of them is replaced. Each lookup takes the segment's lock
+ * once, computes the result under it on a miss and allocates nothing. Hits, misses and
+ * evictions are counted per segment, for sizing the cache per deployment.
+ *
+ * Each evaluation is only computed on a miss; the cached answers are exactly those of
+ * {@link HuEngine}, {@link ShantenCalculator} and {@link ScoreCalculator}.
+ */
+public class EvaluationCache {
+    /** Default maximum number of entries. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    /** Default number of segments. */
+    public static final int DEFAULT_SEGMENTS = 16;
+
+    private static final int SUIT_KEY_BITS = 21; // 5^9 < 2^21
+    private static final long SUIT_KEY_MASK = (1L << SUIT_KEY_BITS) - 1;
+
+    // The kind of result, in the top bits of the context; the meld count sits just below.
+    private static final long HU = 1L << 60;
+    private static final long SHANTEN = 2L << 60;
+    private static final long WAITS = 3L << 60;
+    private static final int MELD_COUNT_SHIFT = 56;
+    private static final int SITUATION_SHIFT = 42; // a score's meld summary uses bits 0-41
+
+    /** Slots an entry may occupy, counted from the one its key hashes to. */
+    private static final int WAYS = 4;
+
+    private final Segment[] segments;
+    private final int capacity;
+    private final ThreadLocal<ShantenCalculator> calculators = ThreadLocal.withInitial(ShantenCalculator::new);
+
+    public EvaluationCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity maximum number of entries, over all kinds of results
+     */
+    public EvaluationCache(int capacity) {
+        this(capacity, DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * @param capacity maximum number of entries, over all kinds of results
+     * @param segments number of independently locked segments; rounded up to a power of two,
+     *                 but no more than the capacity
+     */
+    public EvaluationCache(int capacity, int segments) {
+        if (capacity < 1 || segments < 1) {
+            throw new IllegalArgumentException("Capacity and segments must be positive: " + capacity + ", " + segments);
+        }
+        int n = Integer.highestOneBit(segments);
+        if (n < segments) {
+            n <<= 1;
+        }
+        while (n > capacity) {
+            n >>= 1;
+        }
+        this.segments = new Segment[n];
+        for (int i = 0; i < n; i++) {
+            // Spread the capacity evenly; the first segments take the remainder.
+            this.segments[i] = new Segment(capacity / n + (i < capacity % n ? 1 : 0));
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Packs a hand's tile counts into its signature: the Wan, Tiao and Tong suit keys in bits
+     * 0-20, 21-41 and 42-62.
+     *
+     * @param counts the count vector
+     * @param offset index of the hand's first count (e.g. seat * 27 in a GameState)
+     */
+    public static long signature(byte[] counts, int offset) {
+        return HuEngine.suitKey(counts, offset)
+                | (long) HuEngine.suitKey(counts, offset + 9) << SUIT_KEY_BITS
+                | (long) HuEngine.suitKey(counts, offset + 18) << 2 * SUIT_KEY_BITS;
+    }
+
+    /**
+     * Checks whether a complete hand (14 tiles, counting three for each meld) wins, as
+     * RuleChecker.validateHu does.
+     *
+     * @param counts    the count vector
+     * @param offset    index of the hand's first count
+     * @param meldCount number of exposed melds; seven pairs needs none
+     */
+    public boolean isHu(byte[] counts, int offset, int meldCount) {
+        long signature = signature(counts, offset);
+        long context = HU | (long) meldCount << MELD_COUNT_SHIFT;
+        long hash = hash(signature, context);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            int slot = segment.find(signature, context, hash);
+            if (slot >= 0) {
+                return segment.values[slot] != 0;
+            }
+            int k0 = (int) (signature & SUIT_KEY_MASK);
+            int k1 = (int) (signature >>> SUIT_KEY_BITS & SUIT_KEY_MASK);
+            int k2 = (int) (signature >>> 2 * SUIT_KEY_BITS);
+            boolean hu = HuEngine.isHu(k0, k1, k2) || meldCount == 0 && HuEngine.isSevenPairs(k0, k1, k2);
+            segment.fill(~slot, signature, context, hu ? 1 : 0);
+            return hu;
+        }
+    }
+
+    /**
+     * Returns the shanten of a hand, as {@link ShantenCalculator#shanten} does.
+     *
+     * @param counts     27 tile counts of the concealed hand (modified during a miss, then restored)
+     * @param fixedMelds number of melds already exposed by Peng or Gang
+     */
+    public int shanten(byte[] counts, int fixedMelds) {
+        long signature = signature(counts, 0);
+        long context = SHANTEN | (long) fixedMelds << MELD_COUNT_SHIFT;
+        long hash = hash(signature, context);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            int slot = segment.find(signature, context, hash);
+            if (slot >= 0) {
+                return segment.values[slot];
+            }
+            int shanten = calculators.get().shanten(counts, fixedMelds);
+            segment.fill(~slot, signature, context, shanten);
+            return shanten;
+        }
+    }
+
+    /**
+     * Returns the tiles that would complete a hand one tile short of a win (13 tiles, counting
+     * three for each meld), as a 27-bit mask indexed by tile id, like {@link Player#getWaits}.
+     *
+     * @param counts    the count vector
+     * @param offset    index of the hand's first count
+     * @param meldCount number of exposed melds; seven pairs needs none
+     */
+    public int waits(byte[] counts, int offset, int meldCount) {
+        long signature = signature(counts, offset);
+        long context = WAITS | (long) meldCount << MELD_COUNT_SHIFT;
+        long hash = hash(signature, context);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            int slot = segment.find(signature, context, hash);
+            if (slot >= 0) {
+                return segment.values[slot];
+            }
+            int k0 = (int) (signature & SUIT_KEY_MASK);
+            int k1 = (int) (signature >>> SUIT_KEY_BITS & SUIT_KEY_MASK);
+            int k2 = (int) (signature >>> 2 * SUIT_KEY_BITS);
+            int waits = HuEngine.waits(k0, k1, k2,
+                    HuEngine.suitWaits(k0), HuEngine.suitWaits(k1), HuEngine.suitWaits(k2));
+            if (meldCount == 0) {
+                int odd = 0;
+                for (int t = 0; t < Card.TYPES; t++) {
+                    odd |= (counts[offset + t] & 1) << t;
+                }
+                if (Integer.bitCount(odd) == 1) {
+                    waits |= odd;
+                }
+            }
+            segment.fill(~slot, signature, context, waits);
+            return waits;
+        }
+    }
+
+    /**
+     * Scores a hand, as {@link ScoreCalculator#evaluate(byte[], int, int, long, int)} does.
+     *
+     * @return the packed result, or ScoreCalculator.NOT_A_WIN
+     */
+    public int score(byte[] counts, int offset, int extraTile, long melds, int situation) {
+        long signature = signature(counts, offset);
+        if (extraTile >= 0) {
+            if (counts[offset + extraTile] == Card.COPIES) {
+                return ScoreCalculator.NOT_A_WIN;
+            }
+            signature += (long) HuEngine.POW5[extraTile % 9] << SUIT_KEY_BITS * (extraTile / 9);
+        }
+        // A score's context is its meld summary and situation; the kind bits stay 0.
+        long context = melds | (long) situation << SITUATION_SHIFT;
+        long hash = hash(signature, context);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            int slot = segment.find(signature, context, hash);
+            if (slot >= 0) {
+                return segment.values[slot];
+            }
+            int result = ScoreCalculator.evaluate(counts, offset, extraTile, melds, situation);
+            segment.fill(~slot, signature, context, result);
+            return result;
+        }
+    }
+
+    private static long hash(long signature, long context) {
+        return signature * 0x9E3779B97F4A7C15L + context * 0xC2B2AE3D27D4EB4FL;
+    }
+
+    // The hash's top bits pick the segment; the segment picks the slot from the rest.
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 40) & (segments.length - 1)];
+    }
+
+    /**
+     * Returns the maximum number of entries.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of entries held now.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    public long getHits() {
+        long hits = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                hits += segment.hits;
+            }
+        }
+        return hits;
+    }
+
+    public long getMisses() {
+        long misses = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                misses += segment.misses;
+            }
+        }
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries dropped to make room for newer ones.
+     */
+    public long getEvictions() {
+        long evictions = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                evictions += segment.evictions;
+            }
+        }
+        return evictions;
+    }
+
+    /**
+     * Returns hits / (hits + misses), or 0 before the first lookup.
+     */
+    public double getHitRate() {
+        long h = getHits();
+        long total = h + getMisses();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Removes every entry and resets the counters.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d entries, %d hits, %d misses (%.1f%%), %d evictions",
+                size(), capacity, getHits(), getMisses(), 100 * getHitRate(), getEvictions());
+    }
+
+    /**
+     * One lock's worth of entries in parallel arrays. A slot's stamp is the segment's clock
+     * when it was last used, or 0 while it is empty; slots are only emptied all at once by
+     * clear(), so a key is never found past an empty slot.
+     */
+    private static final class Segment {
+        final long[] signatures;
+        final long[] contexts;
+        final int[] values;
+        final long[] stamps;
+        long clock;
+        int size;
+        long hits;
+        long misses;
+        long evictions;
+
+        Segment(int capacity) {
+            signatures = new long[capacity];
+            contexts = new long[capacity];
+            values = new int[capacity];
+            stamps = new long[capacity];
+        }
+
+        /**
+         * Looks a key up, counting the hit or miss.
+         * @return the entry's slot, or on a miss ~slot of the slot to fill: an empty one if
+         *         there is one, else the least recently used
+         */
+        int find(long signature, long context, long hash) {
+            int n = values.length;
+            int i = (int) ((hash & 0xFFFFFFFFL) * n >>> 32);
+            int victim = i;
+            for (int w = Math.min(WAYS, n); w > 0; w--) {
+                if (stamps[i] == 0) {
+                    misses++;
+                    return ~i;
+                }
+                if (signatures[i] == signature && contexts[i] == context) {
+                    stamps[i] = ++clock;
+                    hits++;
+                    return i;
+                }
+                if (stamps[i] < stamps[victim]) {
+                    victim = i;
+                }
+                if (++i == n) {
+                    i = 0;
+                }
+            }
+            misses++;
+            return ~victim;
+        }
+
+        void fill(int slot, long signature, long context, int value) {
+            if (stamps[slot] == 0) {
+                size++;
+            } else {
+                evictions++;
+            }
+            signatures[slot] = signature;
+            contexts[slot] = context;
+            values[slot] = value;
+            stamps[slot] = ++clock;
+        }
+
+        void clear() {
+            Arrays.fill(stamps, 0);
+            clock = 0;
+            size = 0;
+            hits = 0;
+            misses = 0;
+            evictions = 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package Core;
+
+/**
+ * The Sichuan scoring patterns. A winning hand scores the fan of every pattern it has, plus one
+ * per gen (a set of four identical tiles in the hand or its melds); {@link ScoreCalculator}
+ * finds them.
+ */
+public enum Fan {
+    /** Four melds and a pair with no other pattern. */
+    PING_HU("Ping Hu", 0),
+    /** Four triplets (or Gangs) and a pair. */
+    DUI_DUI_HU("Dui Dui Hu", 1),
+    /** Dui Dui Hu of 2, 5 and 8 only; scored on top of it. */
+    JIANG_DUI("Jiang Dui", 2),
+    /** Every tile from one suit. */
+    QING_YI_SE("Qing Yi Se", 2),
+    /** Seven pairs, concealed. */
+    QI_DUI("Qi Dui", 2),
+    /** Seven pairs with a four among them; that four is not scored again as a gen. */
+    LONG_QI_DUI("Long Qi Dui", 3),
+    /** A 1 or a 9 in every meld and in the pair. */
+    DAI_YAO_JIU("Dai Yao Jiu", 2),
+    /** Won on a single tile after exposing four melds. */
+    JIN_GOU_DIAO("Jin Gou Diao", 1),
+    /** Won with a tile the winner drew. */
+    ZI_MO("Zi Mo", 1),
+    /** Self-drawn with the replacement tile of a Gang. */
+    GANG_SHANG_HUA("Gang Shang Hua", 1),
+    /** Won on the discard a seat made right after its Gang. */
+    GANG_SHANG_PAO("Gang Shang Pao", 1),
+    /** Self-drawn with the last tile of the wall. */
+    HAI_DI_LAO_YUE("Hai Di Lao Yue", 1),
+    /** Won on the discard after the last tile of the wall. */
+    HAI_DI_PAO("Hai Di Pao", 1);
+
+    private static final Fan[] VALUES = values();
+
+    private final String label;
+    private final int fan;
+
+    Fan(String label, int fan) {
+        this.label = label;
+        this.fan = fan;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns the fan the pattern adds.
+     */
+    public int getFan() {
+        return fan;
+    }
+
+    /**
+     * Returns this pattern's bit in a pattern mask.
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    static Fan of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    static int count() {
+        return VALUES.length;
+    }
+}
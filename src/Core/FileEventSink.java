@@ -0,0 +1,51 @@
+package Core;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Appends each game event to a text file, one line per event.
+ * Output is buffered and flushed whenever the log goes idle.
+ */
+public class FileEventSink implements GameEventSink, Closeable {
+    private final BufferedWriter writer;
+    private final String[] seatNames;
+
+    /**
+     * @param file      the file to write, created or truncated
+     * @param seatNames player names indexed by seat
+     */
+    public FileEventSink(Path file, String... seatNames) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        this.seatNames = seatNames.clone();
+    }
+
+    @Override
+    public void onEvent(long event) {
+        try {
+            writer.write(GameEvent.format(event, seatNames));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
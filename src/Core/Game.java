@@ -1,87 +1,479 @@
 package Core;
 
-import Assets.AssetsManager;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * The rules engine for one table. It has no user-interface or asset dependencies, so it runs
+ * headless; a user interface attaches itself as a {@link GameListener}.
+ *
+ * A turn is {@link #beginTurn()}, {@link #completeTurn(Card)} with the chosen discard, then
+ * {@link #resolveClaims(Claim[])} with the other seats' answers from {@link #requestClaims()};
+ * the caller moves to the next seat with {@link #nextTurn()} unless a seat claimed the discard.
+ */
 public class Game {
+    private final long seed;
+    private int handNumber;
     private Deck deck;
     private List<Player> players;
     private int currentTurn;
     private RuleChecker ruleChecker;
-    private AssetsManager assetsManager;
+    private final byte[] visibleTiles; // discarded tile counts, read by AI discard strategies
+    private final DiscardPile discardPile;
+    private int winner;
+    private int winners; // bit per winning seat; several seats may Hu on one discard
+    private boolean over;
+    private final ClaimArbiter claimArbiter = new ClaimArbiter();
+    private final int[] claimOptions;
+    private int claimTile = -1; // the discard waiting for claims, or -1
+    private int drawnTile = -1; // the tile the current seat drew this turn, or -1 (e.g. after a Peng)
+    private int gangSeat = GameResult.NO_SEAT; // the seat playing the turn after its Gang
+    private final List<HandScore> scores = new ArrayList<>();
+    private final List<GameListener> listeners = new CopyOnWriteArrayList<>();
+    private final GameEventLog eventLog = new GameEventLog();
 
     public Game() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a game whose shuffles are repeatable from the given seed.
+     */
+    public Game(long seed) {
+        this.seed = seed;
         ruleChecker = new RuleChecker();
-        assetsManager = new AssetsManager();
         players = new ArrayList<>();
+        deck = new Deck(new SplittableRandom(seed));
+        visibleTiles = new byte[Card.TYPES];
         currentTurn = 0;
-    }
-
-    public void startGame() {
-        // Load tile and icon resources
-        assetsManager.loadAssets();
-
-        // Initialize and shuffle the deck
-        deck = new Deck();
-        deck.shuffle();
+        winner = GameResult.NO_SEAT;
 
         // Initialize players: one human (dealer with 14 cards) and 3 AI players (each 13 cards)
         players.add(new HumanPlayer("Human"));
         players.add(new AIPlayer("AI 1"));
         players.add(new AIPlayer("AI 2"));
         players.add(new AIPlayer("AI 3"));
+        discardPile = new DiscardPile(players.size());
+        claimOptions = new int[players.size()];
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player p = players.get(seat);
+            p.attachEventLog(eventLog, seat);
+            if (p instanceof AIPlayer) {
+                ((AIPlayer) p).setVisibleTiles(visibleTiles);
+                ((AIPlayer) p).setTable(Collections.unmodifiableList(players));
+            }
+        }
+    }
 
-        // Deal initial cards
-        dealInitialCards();
+    /**
+     * Switches every AI seat to search: each gets a {@link MonteCarloDiscardStrategy} of its
+     * own, which decides discards and claims and thinks for the given time per decision. The
+     * claim timeout is raised if needed, so that a claim search is never cut off.
+     *
+     * @param budgetMillis thinking time per decision, in milliseconds
+     */
+    public void useSearchAI(long budgetMillis) {
+        for (Player p : players) {
+            if (p instanceof AIPlayer) {
+                ((AIPlayer) p).setDiscardStrategy(new MonteCarloDiscardStrategy(budgetMillis));
+            }
+        }
+        claimArbiter.setTimeout(Math.max(claimArbiter.getTimeout(), 2 * budgetMillis));
+    }
+
+    /**
+     * Plays a whole game on the calling thread (console mode).
+     * The GUI drives the same steps from its own game-loop thread instead.
+     */
+    public void startGame() {
+        setUpGame();
+
+        // Simulate game flow until someone wins or the deck is empty
+        while (!over) {
+            processPlayerTurn();
+            if (over) {
+                break;
+            }
+            if (resolveClaims(requestClaims().join()) == GameResult.NO_SEAT && !over) {
+                nextTurn();
+            }
+        }
+
+        endGame();
+    }
+
+    /**
+     * Shuffles, deals and resets the table, ready for the dealer's first turn.
+     */
+    public void setUpGame() {
+        // Collect all tiles and shuffle the deck in place
+        deck.reset();
+        dealHand();
+    }
+
+    /**
+     * Sets the table up like {@link #setUpGame()}, but with the wall in the given order
+     * instead of a fresh shuffle, e.g. to replay a recorded hand.
+     *
+     * @param wall 108 tile ids, top of the deck first
+     */
+    public void setUpGame(byte[] wall) {
+        deck.setWall(wall);
+        dealHand();
+    }
+
+    private void dealHand() {
+        handNumber++;
+        Arrays.fill(visibleTiles, (byte) 0);
+        discardPile.clear();
+        currentTurn = 0;
+        winner = GameResult.NO_SEAT;
+        winners = 0;
+        over = false;
+        claimTile = -1;
+        gangSeat = GameResult.NO_SEAT;
+        scores.clear();
+
+        // Deal initial cards: 13 to each player, 14 to the dealer
+        for (Player p : players) {
+            p.clearHand();
+        }
+        deck.deal(players.toArray(new Player[0]));
+        // The dealer's 14th tile counts as its first draw.
+        List<Card> dealt = players.get(0).getHandCards();
+        drawnTile = dealt.get(dealt.size() - 1).getId();
 
         // Check if the human player's initial hand meets the Gang condition
         HumanPlayer human = (HumanPlayer) players.get(0);
         if (ruleChecker.validateGang(human, null)) {
-            System.out.println("Initial hand meets Gang condition; " + human.getName() + " can choose Gang or Pass.");
+            eventLog.publish(GameEvent.Type.GANG_AVAILABLE, 0, -1, 0);
             // Here you can prompt the player to choose; currently it only prints a message.
         }
-
-        // Simulate game flow until the deck is empty
-        while (!deck.isEmpty()) {
-            processPlayerTurn();
-            nextTurn();
+        for (GameListener listener : listeners) {
+            listener.handDealt(this);
         }
+    }
 
-        // End game once deck is empty
-        endGame();
+    /**
+     * Captures the table (wall, hands, discards, turn and result) as a GameState.
+     * The game is not affected; a search can play the copy out and throw it away.
+     */
+    public GameState snapshot() {
+        GameState state = new GameState(players.size());
+        state.load(deck, players, visibleTiles, discardPile, currentTurn, winner, over);
+        return state;
+    }
+
+    /**
+     * Returns a Zobrist hash of the position: every seat's concealed tiles and melds, the
+     * discards by seat, the wall cursors and the seat to act. Positions reached through different
+     * discard orders hash the same, so a search can look them up in a {@link TranspositionTable}.
+     * Each part is kept up to date as tiles move, so this costs a few operations per seat, and it
+     * equals {@link GameState#hash()} of a {@link #snapshot()}. The wall order is not part of it.
+     */
+    public long getStateHash() {
+        long hash = discardPile.getZobristHash() ^ Zobrist.wall(deck.getHead(), deck.getTail())
+                ^ Zobrist.turn(currentTurn);
+        for (int seat = 0; seat < players.size(); seat++) {
+            hash ^= Zobrist.seat(seat, players.get(seat).getZobristHash());
+        }
+        return hash;
     }
 
-    private void dealInitialCards() {
-        // Deal 13 cards to each player
-        for (int i = 0; i < 13; i++) {
-            for (Player p : players) {
-                p.drawCard(deck);
+    /**
+     * Puts the table back in a captured state. Hands come back in tile order, and the discard
+     * pile is rebuilt, so its listeners see it cleared and refilled. Scores are not part of a
+     * state, so a restored finished hand has none. Nor is whether the seat to act has drawn:
+     * apart from the dealer's opening hand, a restored turn is only checked for a self-drawn
+     * Hu after its next draw.
+     *
+     * @param state a state with one seat per player
+     */
+    public void restore(GameState state) {
+        if (state.getSeatCount() != players.size()) {
+            throw new IllegalArgumentException("State has " + state.getSeatCount() + " seats, game has " + players.size());
+        }
+        byte[] wall = new byte[Deck.SIZE];
+        state.copyWall(wall);
+        deck.setWall(wall);
+        deck.setCursors(state.getHead(), state.getTail());
+        byte[] tiles = new byte[Card.TYPES];
+        List<Meld> melds = new ArrayList<>();
+        for (int seat = 0; seat < players.size(); seat++) {
+            state.copyCounts(seat, tiles);
+            players.get(seat).setHandCounts(tiles);
+            melds.clear();
+            for (int i = 0; i < state.getMeldCount(seat); i++) {
+                melds.add(state.getMeld(seat, i));
             }
+            players.get(seat).setMelds(melds);
+        }
+        for (int t = 0; t < Card.TYPES; t++) {
+            visibleTiles[t] = (byte) state.visibleCount(t);
+        }
+        discardPile.clear();
+        for (int i = 0; i < state.getDiscardCount(); i++) {
+            discardPile.add(state.getDiscardSeat(i), Card.of(state.getDiscardTile(i)));
+        }
+        currentTurn = state.getTurn();
+        winner = state.getWinner();
+        winners = winner == GameResult.NO_SEAT ? 0 : 1 << winner;
+        over = state.isOver();
+        claimTile = -1;
+        drawnTile = state.getDiscardCount() == 0 && currentTurn == 0 && state.getHandSize(0) == 14 ? wall[13] : -1;
+        gangSeat = GameResult.NO_SEAT;
+        scores.clear();
+        for (GameListener listener : listeners) {
+            listener.stateRestored(this);
         }
-        // Dealer gets one extra card (14 cards total)
-        players.get(0).drawCard(deck);
     }
 
-    public void processPlayerTurn() {
-        Player currentPlayer = players.get(currentTurn);
-        System.out.println("Current turn: " + currentPlayer.getName());
+    /**
+     * Returns the log that receives this game's events. It has no sinks until one is added,
+     * e.g. a ConsoleEventSink for console play.
+     */
+    public GameEventLog getEventLog() {
+        return eventLog;
+    }
+
+    /**
+     * Returns the player names indexed by seat, for event sinks.
+     */
+    public String[] getSeatNames() {
+        String[] names = new String[players.size()];
+        for (int seat = 0; seat < names.length; seat++) {
+            names[seat] = players.get(seat).getName();
+        }
+        return names;
+    }
+
+    public void addListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GameListener listener) {
+        listeners.remove(listener);
+    }
 
-        // Each turn, draw a card if the deck is not empty
-        if (!deck.isEmpty()) {
-            currentPlayer.drawCard(deck);
+    public void processPlayerTurn() {
+        Player currentPlayer = beginTurn();
+        if (over) {
+            return;
         }
 
         // Simulate discarding a card:
-        // Human player discards the first card in hand; AI player discards the rightmost card.
-        Card discarded = null;
+        // Human player discards the first card in hand; AI player discards by its strategy.
+        Card discarded;
         if (currentPlayer.isHuman()) {
             discarded = currentPlayer.getHandCards().get(0);
-            ((HumanPlayer) currentPlayer).confirmDiscard(discarded);
         } else {
-            discarded = ((AIPlayer) currentPlayer).autoDiscard();
+            discarded = currentPlayer.chooseDiscard();
         }
-        System.out.println(currentPlayer.getName() + " discards: " + discarded);
+        completeTurn(discarded);
+    }
+
+    /**
+     * Starts the current player's turn: draws a card unless the player already holds a
+     * full hand (the dealer's first turn, or after a Peng or Gang), then checks for a
+     * self-drawn Hu if the player has drawn this turn. A Peng draws nothing, so it never
+     * wins by itself.
+     *
+     * @return the player whose turn it is; the caller must then choose a discard
+     *         unless the game is over
+     */
+    public Player beginTurn() {
+        Player currentPlayer = players.get(currentTurn);
+        eventLog.publish(GameEvent.Type.TURN, currentTurn, -1, 0);
+
+        // Draw a card if the player is one short and the deck is not empty
+        if (currentPlayer.getHandCards().size() % 3 == 1) {
+            if (deck.isEmpty()) {
+                over = true;
+                return currentPlayer;
+            }
+            Card card = deck.drawCard();
+            currentPlayer.drawCard(card);
+            drawnTile = card.getId();
+        }
+        if (drawnTile >= 0 && ruleChecker.validateHu(currentPlayer, null)) {
+            eventLog.publish(GameEvent.Type.HU, currentTurn, -1, GameResult.NO_SEAT);
+            winner = currentTurn;
+            winners = 1 << currentTurn;
+            over = true;
+            int situation = ScoreCalculator.SELF_DRAWN
+                    | (gangSeat == currentTurn ? ScoreCalculator.AFTER_GANG : 0)
+                    | (deck.isEmpty() ? ScoreCalculator.LAST_TILE : 0);
+            addScore(currentTurn, GameResult.NO_SEAT, drawnTile,
+                    ScoreCalculator.evaluate(currentPlayer, -1, situation));
+        }
+        for (GameListener listener : listeners) {
+            listener.turnStarted(this, currentTurn);
+        }
+        return currentPlayer;
+    }
+
+    /**
+     * Finishes the current player's turn by discarding the given card, and works out which
+     * seats may claim it. The caller must then settle the claims with {@link #resolveClaims}.
+     *
+     * @param discarded the card to discard from the current player's hand
+     */
+    public void completeTurn(Card discarded) {
+        Player currentPlayer = players.get(currentTurn);
+        currentPlayer.discardCard(discarded);
+        drawnTile = -1;
+        visibleTiles[discarded.getId()]++;
+        discardPile.add(currentTurn, discarded);
+        claimTile = discarded.getId();
+        claimArbiter.computeOptions(players, currentTurn, claimTile, !deck.isEmpty(), claimOptions);
+        for (GameListener listener : listeners) {
+            listener.tileDiscarded(this, currentTurn, discarded);
+        }
+    }
+
+    /**
+     * Returns what a seat may do with the last discard, as a mask of {@link Claim#bit()} values;
+     * 0 once the claims have been resolved.
+     */
+    public int getClaimOptions(int seat) {
+        return claimTile < 0 ? 0 : claimOptions[seat];
+    }
+
+    /**
+     * Asks every seat that can claim the last discard for its answer, concurrently, within the
+     * claim timeout. Completes at once when nobody can claim, which is the common case.
+     *
+     * @return a future for one answer per seat, to pass to {@link #resolveClaims}
+     */
+    public CompletableFuture<Claim[]> requestClaims() {
+        if (claimTile < 0) {
+            Claim[] none = new Claim[players.size()];
+            Arrays.fill(none, Claim.PASS);
+            return CompletableFuture.completedFuture(none);
+        }
+        return claimArbiter.collect(players, currentTurn, Card.of(claimTile), claimOptions);
+    }
+
+    /**
+     * Settles the last discard by Sichuan priority: every seat that declares Hu wins and the hand
+     * ends; otherwise a Peng or Gang takes the tile and the turn (a Gang also draws a replacement
+     * tile from the bottom of the wall). If everybody passes, the hand ends when the wall is empty.
+     *
+     * @param answers one answer per seat
+     * @return the seat that took the tile by Peng or Gang, now the current seat, or GameResult.NO_SEAT
+     * @throws IllegalArgumentException if an answer is not one of the seat's options
+     */
+    public int resolveClaims(Claim[] answers) {
+        if (claimTile < 0) {
+            return GameResult.NO_SEAT;
+        }
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (!answers[seat].isAllowed(claimOptions[seat])) {
+                throw new IllegalArgumentException(players.get(seat).getName() + " cannot " + answers[seat]
+                        + " on " + Card.of(claimTile));
+            }
+        }
+        Card card = Card.of(claimTile);
+        int discarder = currentTurn;
+        claimTile = -1;
+        int situation = (gangSeat == discarder ? ScoreCalculator.AFTER_GANG : 0)
+                | (deck.isEmpty() ? ScoreCalculator.LAST_TILE : 0);
+        gangSeat = GameResult.NO_SEAT;
+
+        // Hu beats Peng and Gang; winners are announced in turn order from the discarder.
+        int taker = GameResult.NO_SEAT;
+        for (int i = 1; i < players.size(); i++) {
+            int seat = (discarder + i) % players.size();
+            Claim claim = answers[seat];
+            if (claim == Claim.HU) {
+                eventLog.publish(GameEvent.Type.HU, seat, card.getId(), discarder);
+                if (winner == GameResult.NO_SEAT) {
+                    winner = seat;
+                }
+                winners |= 1 << seat;
+                addScore(seat, discarder, card.getId(),
+                        ScoreCalculator.evaluate(players.get(seat), card.getId(), situation));
+                for (GameListener listener : listeners) {
+                    listener.tileClaimed(this, seat, claim, card);
+                }
+            } else if (claim != Claim.PASS && taker == GameResult.NO_SEAT) {
+                taker = seat;
+            }
+        }
+        if (winners != 0) {
+            over = true;
+            return GameResult.NO_SEAT;
+        }
+        if (taker == GameResult.NO_SEAT) {
+            if (deck.isEmpty()) {
+                over = true;
+            }
+            return GameResult.NO_SEAT;
+        }
+
+        Claim claim = answers[taker];
+        Player player = players.get(taker);
+        player.claim(new Meld(claim, card, discarder));
+        visibleTiles[card.getId()] += claim == Claim.GANG ? 3 : 2;
+        currentTurn = taker;
+        drawnTile = -1;
+        if (claim == Claim.GANG) {
+            Card replacement = deck.drawLastCard();
+            player.drawCard(replacement);
+            drawnTile = replacement.getId();
+            gangSeat = taker;
+        }
+        for (GameListener listener : listeners) {
+            listener.tileClaimed(this, taker, claim, card);
+        }
+        return taker;
+    }
+
+    private void addScore(int seat, int fromSeat, int tile, int result) {
+        scores.add(new HandScore(seat, fromSeat, tile, result));
+        eventLog.publish(GameEvent.Type.SCORE, seat, tile, result);
+    }
+
+    /**
+     * Returns the scored hands of this hand's winners, in the order they won; empty for a draw.
+     */
+    public List<HandScore> getScores() {
+        return Collections.unmodifiableList(scores);
+    }
+
+    /**
+     * Returns each seat's points for this hand: a discarder pays every winner on its discard,
+     * and every other seat pays a self-drawn winner.
+     */
+    public int[] getPointChanges() {
+        int[] changes = new int[players.size()];
+        for (HandScore score : scores) {
+            int points = score.getPoints();
+            if (score.isSelfDrawn()) {
+                for (int seat = 0; seat < changes.length; seat++) {
+                    if (seat != score.getWinner()) {
+                        changes[seat] -= points;
+                        changes[score.getWinner()] += points;
+                    }
+                }
+            } else {
+                changes[score.getFromSeat()] -= points;
+                changes[score.getWinner()] += points;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Returns the arbiter that collects claims, e.g. to change how long seats have to answer.
+     */
+    public ClaimArbiter getClaimArbiter() {
+        return claimArbiter;
     }
 
     public void nextTurn() {
@@ -89,16 +481,69 @@ public class Game {
     }
 
     public void endGame() {
-        System.out.println("Game over.");
-        // Here you could add logic to display winning order, scores, etc.
+        over = true;
+        eventLog.publish(GameEvent.Type.GAME_OVER, winner, -1, 0);
+        // The winners' scores were published as they won; listeners read them from getScores().
+        for (GameListener listener : listeners) {
+            listener.gameOver(this, winner);
+        }
     }
 
     public void resetGame() {
         // Reset game state and restart the game
-        currentTurn = 0;
-        players.clear();
-        deck = new Deck();
-        deck.shuffle();
         startGame();
     }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    /**
+     * Returns the seed the game's shuffles derive from.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns how many hands have been dealt, counting the current one.
+     */
+    public int getHandNumber() {
+        return handNumber;
+    }
+
+    public Deck getDeck() {
+        return deck;
+    }
+
+    public int getCurrentTurn() {
+        return currentTurn;
+    }
+
+    /**
+     * Returns the discarded cards in the order they were played.
+     * Views can register a DiscardListener on it to follow each discard.
+     */
+    public DiscardPile getDiscardPile() {
+        return discardPile;
+    }
+
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Returns the winning seat, or GameResult.NO_SEAT if nobody has won. When several seats
+     * win on one discard, this is the first of them in turn order from the discarder.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns true if the seat has won this hand.
+     */
+    public boolean isWinner(int seat) {
+        return (winners & 1 << seat) != 0;
+    }
 }
\ No newline at end of file
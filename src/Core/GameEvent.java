@@ -0,0 +1,142 @@
+package Core;
+
+/**
+ * Game events packed into a single long, so they can be logged without allocating.
+ *
+ * Layout: bits 0-7 event type, bits 8-15 seat, bits 16-23 tile id, bits 32-63 an
+ * event-specific argument (e.g. the number of tiles dealt). A seat or tile of -1 means none.
+ */
+public final class GameEvent {
+    /**
+     * What happened. The ordinal is stored in the packed event.
+     */
+    public enum Type {
+        /** A seat is dealt its starting tiles; the argument is the number of tiles. */
+        DEAL,
+        /** A seat's turn starts. */
+        TURN,
+        /** A seat draws a tile. */
+        DRAW,
+        /** A seat wants to draw but the wall is empty. */
+        WALL_EMPTY,
+        /** A seat discards a tile. */
+        DISCARD,
+        /** A discard was requested for a tile the seat does not hold (tile -1: empty hand). */
+        INVALID_DISCARD,
+        /** The human selects a tile. */
+        SELECT,
+        /** The human cancels a selection. */
+        CANCEL_SELECT,
+        /** The human confirms a discard. */
+        CONFIRM_DISCARD,
+        /** A seat claims a discard for Peng. */
+        PENG,
+        /** A seat declares Gang on a tile. */
+        GANG,
+        /** A seat's starting hand holds four of a kind, so it may declare Gang. */
+        GANG_AVAILABLE,
+        /** A seat declares Hu; the argument is the seat that dealt in, or -1 for self-draw. */
+        HU,
+        /** The hand is over; the seat is the winner, or -1 for a draw. */
+        GAME_OVER,
+        /** A winner's hand is scored; the tile is the winning tile, the argument the ScoreCalculator result. */
+        SCORE,
+        /** The user interface's images are decoded; the argument is the milliseconds since startup. */
+        ASSETS_LOADED,
+        /** The user interface painted its first frame; the argument is the milliseconds since startup. */
+        FIRST_FRAME,
+        /** The user abandoned the hand and a new one is dealt. */
+        RESTART;
+
+        private static final Type[] VALUES = values();
+    }
+
+    private GameEvent() {
+    }
+
+    /**
+     * Packs an event into a long.
+     *
+     * @param type the event type
+     * @param seat the seat it concerns, or -1
+     * @param tile the tile id it concerns, or -1
+     * @param arg  an event-specific argument
+     * @return the packed event
+     */
+    public static long pack(Type type, int seat, int tile, int arg) {
+        return type.ordinal()
+                | (long) (seat & 0xFF) << 8
+                | (long) (tile & 0xFF) << 16
+                | (long) arg << 32;
+    }
+
+    public static Type type(long event) {
+        return Type.VALUES[(int) (event & 0xFF)];
+    }
+
+    public static int seat(long event) {
+        return (byte) (event >>> 8);
+    }
+
+    public static int tile(long event) {
+        return (byte) (event >>> 16);
+    }
+
+    public static int arg(long event) {
+        return (int) (event >>> 32);
+    }
+
+    /**
+     * Formats an event as a console line.
+     *
+     * @param event     the packed event
+     * @param seatNames player names indexed by seat
+     * @return a readable description
+     */
+    public static String format(long event, String[] seatNames) {
+        int seat = seat(event);
+        String name = seat >= 0 && seat < seatNames.length ? seatNames[seat] : "Seat " + seat;
+        int tile = tile(event);
+        Card card = tile >= 0 ? Card.of(tile) : null;
+        switch (type(event)) {
+            case DEAL:
+                return name + " is dealt " + arg(event) + " cards.";
+            case TURN:
+                return "Current turn: " + name;
+            case DRAW:
+                return name + " draws card: " + card;
+            case WALL_EMPTY:
+                return "Deck is empty. " + name + " cannot draw a card.";
+            case DISCARD:
+                return name + " discards card: " + card;
+            case INVALID_DISCARD:
+                return card == null ? name + " has no card to discard." : "Card " + card + " not found in " + name + "'s hand.";
+            case SELECT:
+                return name + " selected " + card;
+            case CANCEL_SELECT:
+                return name + " cancelled selection of " + card;
+            case CONFIRM_DISCARD:
+                return name + " confirmed discard of " + card;
+            case PENG:
+                return name + " declares Peng on " + card;
+            case GANG:
+                return name + " declares Gang on " + card;
+            case GANG_AVAILABLE:
+                return "Initial hand meets Gang condition; " + name + " can choose Gang or Pass.";
+            case HU:
+                return name + " declares Hu!";
+            case GAME_OVER:
+                return seat >= 0 ? "Game over. " + name + " wins." : "Game over.";
+            case SCORE:
+                return name + " scores " + ScoreCalculator.describe(arg(event));
+            case ASSETS_LOADED:
+                return "Assets loaded after " + arg(event) + " ms";
+            case FIRST_FRAME:
+                return "First frame after " + arg(event) + " ms";
+            case RESTART:
+                return "Game restarted!";
+            default:
+                return type(event) + " " + name;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package Core;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An asynchronous log of game events, replacing console output on the game thread.
+ *
+ * Events are packed into longs (see {@link GameEvent}) and written to a bounded, lock-free ring
+ * buffer. Each slot carries a sequence number: a producer claims a position with one CAS, writes
+ * the event and publishes it by advancing the slot's sequence; a single consumer thread reads
+ * published slots in order and hands them to the sinks (console, file, metrics...). Producers never
+ * block: if the buffer is full the event is dropped and counted.
+ *
+ * With no sinks attached, {@link #publish} returns after one volatile read, without packing or
+ * allocating anything; the consumer thread is only started when the first sink is added.
+ */
+public class GameEventLog {
+    /** A log that never has sinks, for players that are not seated at a logged game. */
+    public static final GameEventLog DISABLED = new GameEventLog(2);
+
+    private static final int DEFAULT_CAPACITY = 1 << 12;
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private final long[] events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // next position to claim
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<GameEventSink> sinks = new CopyOnWriteArrayList<>();
+
+    private volatile boolean active;       // true while at least one sink is attached
+    private volatile long head;            // next position to consume, written by the consumer only
+    private volatile long flushedUpTo;     // position up to which the sinks have been flushed
+    private volatile boolean closed;
+    private Thread consumer;
+
+    public GameEventLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of events the buffer holds; rounded up to a power of two
+     */
+    public GameEventLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.events = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Attaches a sink and starts the consumer thread if it is not running yet. A sink that
+     * throws is reported once on standard error and detached.
+     *
+     * @throws IllegalStateException on {@link #DISABLED} or a closed log
+     */
+    public synchronized void addSink(GameEventSink sink) {
+        if (this == DISABLED) {
+            throw new IllegalStateException("The disabled log cannot have sinks");
+        }
+        if (closed) {
+            throw new IllegalStateException("Event log is closed");
+        }
+        sinks.add(sink);
+        active = true;
+        if (consumer == null) {
+            consumer = new Thread(this::consume, "event-log");
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+    }
+
+    public synchronized void removeSink(GameEventSink sink) {
+        sinks.remove(sink);
+        active = !sinks.isEmpty();
+    }
+
+    /**
+     * Returns true if events are being consumed, so callers can skip preparing expensive arguments.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Publishes an event. Safe to call from any thread; never blocks.
+     *
+     * @param type the event type
+     * @param seat the seat it concerns, or -1
+     * @param tile the tile id it concerns, or -1
+     * @param arg  an event-specific argument
+     */
+    public void publish(GameEvent.Type type, int seat, int tile, int arg) {
+        if (!active) {
+            return;
+        }
+        long event = GameEvent.pack(type, seat, tile, arg);
+        long pos = tail.get();
+        while (true) {
+            int slot = (int) pos & mask;
+            long sequence = sequences.get(slot);
+            if (sequence == pos) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    events[slot] = event;
+                    sequences.lazySet(slot, pos + 1);
+                    return;
+                }
+                pos = tail.get();
+            } else if (sequence < pos) {
+                // The consumer has not freed this slot yet: the buffer is full.
+                dropped.incrementAndGet();
+                return;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Waits until every event published so far has reached the sinks and the sinks have been flushed.
+     */
+    public void flush() {
+        long target = tail.get();
+        Thread thread;
+        synchronized (this) {
+            thread = consumer;
+        }
+        while (thread != null && thread.isAlive() && flushedUpTo < target) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+        }
+    }
+
+    /**
+     * Delivers the remaining events, then stops the consumer thread. Later events are ignored.
+     */
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            active = false;
+            thread = consumer;
+        }
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void consume() {
+        long pos = head;
+        while (true) {
+            int slot = (int) pos & mask;
+            if (sequences.get(slot) == pos + 1) {
+                long event = events[slot];
+                // Free the slot for the producer one lap ahead.
+                sequences.lazySet(slot, pos + events.length);
+                pos++;
+                for (GameEventSink sink : sinks) {
+                    try {
+                        sink.onEvent(event);
+                    } catch (RuntimeException e) {
+                        detach(sink, e);
+                    }
+                }
+                head = pos;
+                continue;
+            }
+            if (tail.get() != pos) {
+                // A producer has claimed the slot and is about to publish it.
+                Thread.onSpinWait();
+                continue;
+            }
+            if (flushedUpTo < pos) {
+                for (GameEventSink sink : sinks) {
+                    try {
+                        sink.flush();
+                    } catch (RuntimeException e) {
+                        detach(sink, e);
+                    }
+                }
+                flushedUpTo = pos;
+            }
+            if (closed && tail.get() == pos) {
+                return;
+            }
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+    }
+
+    // Reports a sink's failure once and stops delivering to it, so a broken sink cannot flood stderr.
+    private void detach(GameEventSink sink, RuntimeException e) {
+        removeSink(sink);
+        System.err.println("Event sink " + sink + " failed and was detached:");
+        e.printStackTrace();
+    }
+}
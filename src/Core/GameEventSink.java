@@ -0,0 +1,20 @@
+package Core;
+
+/**
+ * Consumes events from a {@link GameEventLog}.
+ * All methods are called on the log's single consumer thread, never on the game thread.
+ */
+public interface GameEventSink {
+    /**
+     * Handles one event, in publication order.
+     *
+     * @param event the packed event; decode it with the {@link GameEvent} accessors
+     */
+    void onEvent(long event);
+
+    /**
+     * Called whenever the log runs out of events, and on {@link GameEventLog#flush()}.
+     */
+    default void flush() {
+    }
+}
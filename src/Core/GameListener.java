@@ -0,0 +1,47 @@
+package Core;
+
+/**
+ * Observes a {@link Game} as it is played, e.g. to keep a user interface in step with it.
+ * The engine runs without any listener; every method has an empty default, so observers
+ * only override what they need. Callbacks run on the thread that drives the game.
+ */
+public interface GameListener {
+    /**
+     * Called after a new hand has been shuffled and dealt.
+     */
+    default void handDealt(Game game) {
+    }
+
+    /**
+     * Called when a seat's turn starts, after it has drawn (if it needed to).
+     */
+    default void turnStarted(Game game, int seat) {
+    }
+
+    /**
+     * Called after a seat has discarded a tile.
+     */
+    default void tileDiscarded(Game game, int seat, Card card) {
+    }
+
+    /**
+     * Called when a seat takes the last discard: once per winner for Hu (several seats may win
+     * on one discard), or once for the seat that makes a Peng or Gang with it.
+     */
+    default void tileClaimed(Game game, int seat, Claim claim, Card card) {
+    }
+
+    /**
+     * Called after the whole table has been replaced by {@link Game#restore(GameState)}.
+     */
+    default void stateRestored(Game game) {
+    }
+
+    /**
+     * Called once the hand is over, whether won or drawn.
+     *
+     * @param winner the winning seat, or GameResult.NO_SEAT for a draw
+     */
+    default void gameOver(Game game, int winner) {
+    }
+}
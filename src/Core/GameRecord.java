@@ -0,0 +1,216 @@
+package Core;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * One recorded hand, as stored by {@link GameRecorder}.
+ *
+ * Binary layout (big-endian):
+ * <pre>
+ *   long  seed          the game's seed
+ *   int   hand number   1 for the first hand dealt by the game
+ *   byte  seats         number of seats
+ *   byte[108] wall      the shuffled wall, top first; it fixes the deal and every draw
+ *   byte[] actions      one byte per action, ending with an END byte
+ * </pre>
+ * An action byte holds the action kind in its top three bits and a tile id or seat in the low five.
+ * Every discard is followed by the claims made on it (Peng, Gang or one Hu per winner), if any.
+ * Draws and Hu checks follow from the wall and the rules, so only the decisions are stored.
+ */
+public final class GameRecord {
+    /** Action kind: a discard; the low bits are the tile id. */
+    static final int DISCARD = 0;
+    /** Action kind: a Peng on the last discard; the low bits are the claiming seat. */
+    static final int PENG = 1;
+    /** Action kind: a Gang on the last discard; the low bits are the claiming seat. */
+    static final int GANG = 2;
+    /** Action kind: a Hu on the last discard; the low bits are the winning seat. */
+    static final int HU = 3;
+    /** Action kind: end of the hand; the low bits are the winning seat + 1, or 0 for a draw. */
+    static final int END = 7;
+
+    private final long seed;
+    private final int handNumber;
+    private final int seats;
+    private final byte[] wall;
+    private final byte[] actions;   // every action but END
+    private final int[] discardAt;  // position of each discard in actions
+    private final int winner;
+
+    GameRecord(long seed, int handNumber, int seats, byte[] wall, byte[] actions, int winner) {
+        this.seed = seed;
+        this.handNumber = handNumber;
+        this.seats = seats;
+        this.wall = wall;
+        this.actions = actions;
+        this.winner = winner;
+        int turns = 0;
+        for (byte action : actions) {
+            if (kind(action) == DISCARD) {
+                turns++;
+            }
+        }
+        discardAt = new int[turns];
+        for (int i = 0, t = 0; i < actions.length; i++) {
+            if (kind(actions[i]) == DISCARD) {
+                discardAt[t++] = i;
+            }
+        }
+    }
+
+    static int action(int kind, int low) {
+        return kind << 5 | low;
+    }
+
+    /**
+     * Returns the action kind recording a claim.
+     */
+    static int action(Claim claim) {
+        switch (claim) {
+            case PENG:
+                return PENG;
+            case GANG:
+                return GANG;
+            case HU:
+                return HU;
+            default:
+                throw new IllegalArgumentException("Passes are not recorded");
+        }
+    }
+
+    private static int kind(byte action) {
+        return (action & 0xFF) >>> 5;
+    }
+
+    /**
+     * Decodes a record from the buffer's current position.
+     */
+    static GameRecord read(ByteBuffer in) {
+        long seed = in.getLong();
+        int handNumber = in.getInt();
+        int seats = in.get();
+        byte[] wall = new byte[Deck.SIZE];
+        in.get(wall);
+        byte[] actions = new byte[in.remaining()];
+        int count = 0;
+        int winner = GameResult.NO_SEAT;
+        while (in.hasRemaining()) {
+            byte action = in.get();
+            int kind = kind(action);
+            if (kind == END) {
+                winner = (action & 0x1F) - 1;
+                break;
+            } else if (kind > HU) {
+                throw new IllegalStateException("Unknown action " + (action & 0xFF));
+            }
+            actions[count++] = action;
+        }
+        byte[] trimmed = new byte[count];
+        System.arraycopy(actions, 0, trimmed, 0, count);
+        return new GameRecord(seed, handNumber, seats, wall, trimmed, winner);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getHandNumber() {
+        return handNumber;
+    }
+
+    public int getSeatCount() {
+        return seats;
+    }
+
+    /**
+     * Returns a copy of the recorded wall, top of the deck first.
+     */
+    public byte[] getWall() {
+        return wall.clone();
+    }
+
+    /**
+     * Returns the number of discards in the hand.
+     */
+    public int getTurnCount() {
+        return discardAt.length;
+    }
+
+    /**
+     * Returns the tile discarded on the given turn, counting from 0.
+     */
+    public Card getDiscard(int turn) {
+        return Card.of(actions[discardAt[turn]] & 0x1F);
+    }
+
+    /**
+     * Returns what each seat did with the discard of the given turn (PASS for seats that did not
+     * claim it).
+     */
+    public Claim[] getClaims(int turn) {
+        Claim[] claims = new Claim[seats];
+        Arrays.fill(claims, Claim.PASS);
+        for (int i = discardAt[turn] + 1; i < actions.length && kind(actions[i]) != DISCARD; i++) {
+            int kind = kind(actions[i]);
+            claims[actions[i] & 0x1F] = kind == PENG ? Claim.PENG : kind == GANG ? Claim.GANG : Claim.HU;
+        }
+        return claims;
+    }
+
+    /**
+     * Returns the winning seat, or GameResult.NO_SEAT for a drawn hand.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Replays the hand on a fresh Game up to the given turn.
+     *
+     * @param turns number of discards to replay; the hand is left before the next seat draws
+     * @return the game in that position
+     */
+    public Game replay(int turns) {
+        Game game = new Game(seed);
+        replay(game, turns);
+        return game;
+    }
+
+    /**
+     * Deals the recorded wall on the given game and replays the first {@code turns} discards,
+     * with the claims made on them. Replaying all turns leaves the game over, with the recorded winner.
+     *
+     * @throws IllegalStateException if the rules engine disagrees with the record
+     */
+    public void replay(Game game, int turns) {
+        if (game.getPlayers().size() != seats) {
+            throw new IllegalArgumentException("Record has " + seats + " seats, game has " + game.getPlayers().size());
+        }
+        game.setUpGame(wall);
+        int limit = Math.min(turns, discardAt.length);
+        for (int t = 0; t < limit; t++) {
+            game.beginTurn();
+            if (game.isOver()) {
+                throw new IllegalStateException("Hand ended before recorded turn " + t);
+            }
+            game.completeTurn(getDiscard(t));
+            int taker;
+            try {
+                taker = game.resolveClaims(getClaims(t));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Recorded claim on turn " + t + " is not allowed", e);
+            }
+            if (taker == GameResult.NO_SEAT && !game.isOver()) {
+                game.nextTurn();
+            }
+        }
+        if (turns >= discardAt.length && !game.isOver()) {
+            // The last turn starts with a self-drawn Hu or an empty wall.
+            game.beginTurn();
+            if (!game.isOver() || game.getWinner() != winner) {
+                throw new IllegalStateException("Replayed hand does not end as recorded");
+            }
+        }
+    }
+}
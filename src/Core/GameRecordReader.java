@@ -0,0 +1,108 @@
+package Core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to the hands written by a {@link GameRecorder}.
+ *
+ * The index is mapped whole; the data file is read through a memory-mapped window that is moved
+ * when a hand falls outside it, so reading hands in order touches each page once.
+ */
+public class GameRecordReader implements Closeable {
+    private static final long WINDOW_SIZE = 1 << 28;
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private final MappedByteBuffer indexMap;
+    private final long dataSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * Opens a recording for reading.
+     *
+     * @param file the data file; its index is the same path with ".idx" appended
+     */
+    public GameRecordReader(Path file) throws IOException {
+        data = FileChannel.open(file, StandardOpenOption.READ);
+        index = FileChannel.open(GameRecorder.indexPath(file), StandardOpenOption.READ);
+        long indexSize = index.size() / GameRecorder.INDEX_ENTRY_SIZE * GameRecorder.INDEX_ENTRY_SIZE;
+        indexMap = index.map(FileChannel.MapMode.READ_ONLY, 0, indexSize);
+        dataSize = data.size();
+    }
+
+    /**
+     * Returns the number of recorded hands.
+     */
+    public int size() {
+        return indexMap.capacity() / GameRecorder.INDEX_ENTRY_SIZE;
+    }
+
+    /**
+     * Returns the number of turns of a hand, read from the index alone.
+     */
+    public int getTurnCount(int hand) {
+        return indexMap.getShort(entry(hand) + 12);
+    }
+
+    /**
+     * Returns the winning seat of a hand (GameResult.NO_SEAT for a draw), read from the index alone.
+     */
+    public int getWinner(int hand) {
+        return indexMap.get(entry(hand) + 14);
+    }
+
+    /**
+     * Decodes a recorded hand.
+     *
+     * @param hand the hand's position in the recording, from 0
+     */
+    public GameRecord read(int hand) throws IOException {
+        int entry = entry(hand);
+        long offset = indexMap.getLong(entry);
+        int length = indexMap.getInt(entry + 8);
+        if (offset + length > dataSize) {
+            throw new IOException("Hand " + hand + " lies beyond the end of the data file");
+        }
+        if (window == null || offset < windowStart || offset + length > windowStart + window.capacity()) {
+            windowStart = offset;
+            window = data.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, dataSize - offset));
+        }
+        ByteBuffer record = window.duplicate();
+        int from = (int) (offset - windowStart);
+        record.position(from).limit(from + length);
+        return GameRecord.read(record.slice());
+    }
+
+    /**
+     * Reconstructs a hand as it stood after the given number of discards.
+     *
+     * @param hand  the hand's position in the recording, from 0
+     * @param turns number of discards to replay
+     * @return a game in that position
+     */
+    public Game seek(int hand, int turns) throws IOException {
+        return read(hand).replay(turns);
+    }
+
+    private int entry(int hand) {
+        if (hand < 0 || hand >= size()) {
+            throw new IndexOutOfBoundsException("Hand " + hand + " of " + size());
+        }
+        return hand * GameRecorder.INDEX_ENTRY_SIZE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        data.close();
+        index.close();
+    }
+}
@@ -0,0 +1,184 @@
+package Core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records every hand a {@link Game} plays, as a {@link GameListener}.
+ *
+ * Hands are appended to a data file in the {@link GameRecord} format (about 125 bytes of header
+ * plus one byte per discard or claim), and each finished hand adds a fixed-size entry to an index file
+ * next to it, so any hand can be found with one seek. Both files are written through memory-mapped
+ * windows that are extended as the files grow; on {@link #close()} they are trimmed to size.
+ * Opening an existing recording appends to it; a hand that was cut off before its index entry
+ * was written is overwritten.
+ *
+ * Index entry (16 bytes): long offset of the hand in the data file, int length, short number of
+ * turns, byte winning seat (-1 for a draw), one reserved byte.
+ *
+ * Not thread-safe: attach it to one game.
+ */
+public class GameRecorder implements GameListener, Closeable {
+    static final int INDEX_ENTRY_SIZE = 16;
+    private static final int WINDOW_SIZE = 1 << 20;
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private final byte[] wall = new byte[Deck.SIZE];
+
+    private MappedByteBuffer dataWindow;
+    private long dataWindowStart;
+    private long dataSize;
+    private MappedByteBuffer indexWindow;
+    private long indexWindowStart;
+    private long indexSize;
+
+    private long handStart = -1; // data offset of the hand being recorded, or -1
+    private int turns;
+
+    /**
+     * Opens a recording for appending, creating it if needed.
+     *
+     * @param file the data file; the index is written to the same path with ".idx" appended
+     */
+    public GameRecorder(Path file) throws IOException {
+        data = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = FileChannel.open(indexPath(file), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        indexSize = index.size() / INDEX_ENTRY_SIZE * INDEX_ENTRY_SIZE;
+        if (indexSize > 0) {
+            MappedByteBuffer last = index.map(FileChannel.MapMode.READ_ONLY, indexSize - INDEX_ENTRY_SIZE, INDEX_ENTRY_SIZE);
+            dataSize = last.getLong(0) + last.getInt(Long.BYTES);
+        }
+    }
+
+    static Path indexPath(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    /**
+     * Returns the number of complete hands in the recording.
+     */
+    public long getHandCount() {
+        return indexSize / INDEX_ENTRY_SIZE;
+    }
+
+    @Override
+    public void handDealt(Game game) {
+        handStart = dataSize;
+        turns = 0;
+        game.getDeck().copyWall(wall);
+        putLong(game.getSeed());
+        putInt(game.getHandNumber());
+        putByte(game.getPlayers().size());
+        for (byte tile : wall) {
+            putByte(tile);
+        }
+    }
+
+    @Override
+    public void tileDiscarded(Game game, int seat, Card card) {
+        if (handStart < 0) {
+            return;
+        }
+        putByte(GameRecord.action(GameRecord.DISCARD, card.getId()));
+        turns++;
+    }
+
+    @Override
+    public void tileClaimed(Game game, int seat, Claim claim, Card card) {
+        if (handStart < 0) {
+            return;
+        }
+        putByte(GameRecord.action(GameRecord.action(claim), seat));
+    }
+
+    @Override
+    public void gameOver(Game game, int winner) {
+        if (handStart < 0) {
+            return;
+        }
+        putByte(GameRecord.action(GameRecord.END, winner + 1));
+
+        MappedByteBuffer window = indexWindow(INDEX_ENTRY_SIZE);
+        int at = (int) (indexSize - indexWindowStart);
+        window.putLong(at, handStart);
+        window.putInt(at + 8, (int) (dataSize - handStart));
+        window.putShort(at + 12, (short) turns);
+        window.put(at + 14, (byte) winner);
+        window.put(at + 15, (byte) 0);
+        indexSize += INDEX_ENTRY_SIZE;
+        handStart = -1;
+    }
+
+    /**
+     * Forces the recorded hands to disk and trims both files to their contents.
+     */
+    @Override
+    public void close() throws IOException {
+        if (dataWindow != null) {
+            dataWindow.force();
+        }
+        if (indexWindow != null) {
+            indexWindow.force();
+        }
+        dataWindow = null;
+        indexWindow = null;
+        // An unfinished hand is dropped: it has no index entry.
+        long end = handStart >= 0 ? handStart : dataSize;
+        data.truncate(end);
+        index.truncate(indexSize);
+        data.close();
+        index.close();
+    }
+
+    private void putByte(int value) {
+        MappedByteBuffer window = dataWindow(1);
+        window.put((int) (dataSize - dataWindowStart), (byte) value);
+        dataSize++;
+    }
+
+    private void putInt(int value) {
+        MappedByteBuffer window = dataWindow(Integer.BYTES);
+        window.putInt((int) (dataSize - dataWindowStart), value);
+        dataSize += Integer.BYTES;
+    }
+
+    private void putLong(long value) {
+        MappedByteBuffer window = dataWindow(Long.BYTES);
+        window.putLong((int) (dataSize - dataWindowStart), value);
+        dataSize += Long.BYTES;
+    }
+
+    /**
+     * Returns a data window with room for the given number of bytes at dataSize,
+     * mapping the next window (which extends the file) when the current one is full.
+     */
+    private MappedByteBuffer dataWindow(int bytes) {
+        if (dataWindow == null || dataSize + bytes > dataWindowStart + dataWindow.capacity()) {
+            dataWindowStart = dataSize;
+            dataWindow = map(data, dataWindowStart);
+        }
+        return dataWindow;
+    }
+
+    private MappedByteBuffer indexWindow(int bytes) {
+        if (indexWindow == null || indexSize + bytes > indexWindowStart + indexWindow.capacity()) {
+            indexWindowStart = indexSize;
+            indexWindow = map(index, indexWindowStart);
+        }
+        return indexWindow;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, position, WINDOW_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
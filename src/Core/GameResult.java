@@ -0,0 +1,67 @@
+package Core;
+
+/**
+ * The outcome of one simulated hand, returned by {@link Simulator#playHand()}.
+ */
+public final class GameResult {
+    /** Seat value used when nobody won. */
+    public static final int NO_SEAT = -1;
+
+    private final int winner;      // winning seat, or NO_SEAT for a drawn hand
+    private final int discarder;   // seat that dealt in the winning tile, or NO_SEAT for self-draw/draw
+    private final int winningTile; // tile id of the winning tile, or -1
+    private final int turns;       // number of discards made
+    private final int wallRemaining;
+
+    public GameResult(int winner, int discarder, int winningTile, int turns, int wallRemaining) {
+        this.winner = winner;
+        this.discarder = discarder;
+        this.winningTile = winningTile;
+        this.turns = turns;
+        this.wallRemaining = wallRemaining;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+
+    public int getDiscarder() {
+        return discarder;
+    }
+
+    public int getWinningTile() {
+        return winningTile;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public int getWallRemaining() {
+        return wallRemaining;
+    }
+
+    /**
+     * Returns true if the hand ended with nobody winning.
+     */
+    public boolean isDraw() {
+        return winner == NO_SEAT;
+    }
+
+    /**
+     * Returns true if the winner completed the hand with their own draw.
+     */
+    public boolean isSelfDrawn() {
+        return winner != NO_SEAT && discarder == NO_SEAT;
+    }
+
+    @Override
+    public String toString() {
+        if (isDraw()) {
+            return "Draw after " + turns + " turns";
+        }
+        return "Seat " + winner + " wins on " + Card.of(winningTile)
+                + (isSelfDrawn() ? " (self-drawn)" : " from seat " + discarder)
+                + " after " + turns + " turns";
+    }
+}
@@ -0,0 +1,547 @@
+package Core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The complete state of one hand in a few hundred bytes of primitive arrays: the wall and its
+ * cursors, every seat's tile counts and exposed melds, the discards, the visible tile counts and
+ * whose turn it is. Search moves are draws, discards and claims of the last discard by Peng
+ * or Gang.
+ *
+ * Every change is pushed onto an undo stack, so a search can take a snapshot with {@link #mark()}
+ * in O(1), play a line out, and {@link #restore(int)} back by undoing only the moves it made.
+ * {@link #copy()} clones the whole state for independent branches (e.g. one per thread).
+ * {@link Game#snapshot()} and {@link Game#restore(GameState)} convert to and from a running game.
+ * Moves and undos also keep a Zobrist hash of the position up to date ({@link #hash()}), for
+ * looking positions up in a {@link TranspositionTable}.
+ *
+ * Not thread-safe.
+ */
+public final class GameState {
+    private static final int OP_DRAW = 1;
+    private static final int OP_DISCARD = 2;
+    private static final int OP_TURN = 3;
+    private static final int OP_WIN = 4;
+    private static final int OP_OVER = 5;
+    private static final int OP_DRAW_LAST = 6;
+    private static final int OP_CLAIM = 7;
+
+    private final int seats;
+    private final byte[] wall = new byte[Deck.SIZE];
+    private int head;                 // next tile drawn from the top
+    private int tail;                 // one past the next tile drawn from the bottom
+    private final byte[] counts;      // seat * 27 + tile
+    private final byte[] handSizes;
+    private final byte[] melds;       // seat * 4 + i: tile id | from seat << 5 | 0x80 for a Gang
+    private final byte[] meldCounts;
+    private final byte[] visible = new byte[Card.TYPES];
+    private final byte[] discardTiles = new byte[Deck.SIZE];
+    private final byte[] discardSeats = new byte[Deck.SIZE];
+    private int discardCount;
+    private int turn;
+    private int winner = GameResult.NO_SEAT;
+    private boolean over;
+    private final long[] handHashes;  // per seat: concealed tiles and melds, as Player hashes them
+    private long discardHash;
+
+    // Undo records: op in bits 0-7, seat in 8-15, tile in 16-23, previous value in 32-63.
+    private long[] undo = new long[256];
+    private int undoSize;
+
+    /**
+     * Creates an empty table with the given number of seats.
+     */
+    public GameState(int seats) {
+        this.seats = seats;
+        this.counts = new byte[seats * Card.TYPES];
+        this.handSizes = new byte[seats];
+        this.melds = new byte[seats * 4];
+        this.meldCounts = new byte[seats];
+        this.handHashes = new long[seats];
+    }
+
+    private GameState(GameState other) {
+        this(other.seats);
+        copyFrom(other);
+    }
+
+    /**
+     * Returns an independent copy of this state, without its undo history.
+     */
+    public GameState copy() {
+        return new GameState(this);
+    }
+
+    /**
+     * Overwrites this state with another one of the same size and clears the undo history.
+     */
+    public void copyFrom(GameState other) {
+        if (other.seats != seats) {
+            throw new IllegalArgumentException("Seat counts differ: " + other.seats + " and " + seats);
+        }
+        System.arraycopy(other.wall, 0, wall, 0, Deck.SIZE);
+        head = other.head;
+        tail = other.tail;
+        System.arraycopy(other.counts, 0, counts, 0, counts.length);
+        System.arraycopy(other.handSizes, 0, handSizes, 0, seats);
+        System.arraycopy(other.melds, 0, melds, 0, melds.length);
+        System.arraycopy(other.meldCounts, 0, meldCounts, 0, seats);
+        System.arraycopy(other.visible, 0, visible, 0, Card.TYPES);
+        System.arraycopy(other.discardTiles, 0, discardTiles, 0, other.discardCount);
+        System.arraycopy(other.discardSeats, 0, discardSeats, 0, other.discardCount);
+        discardCount = other.discardCount;
+        turn = other.turn;
+        winner = other.winner;
+        over = other.over;
+        System.arraycopy(other.handHashes, 0, handHashes, 0, seats);
+        discardHash = other.discardHash;
+        undoSize = 0;
+    }
+
+    /**
+     * Starts a hand: takes the wall in the given order and deals 14 tiles to seat 0 and 13 to
+     * every other seat from the top, as {@link Deck#deal} does. Clears the undo history.
+     *
+     * @param order 108 tile ids, top of the deck first
+     */
+    public void deal(byte[] order) {
+        System.arraycopy(order, 0, wall, 0, Deck.SIZE);
+        Arrays.fill(counts, (byte) 0);
+        Arrays.fill(visible, (byte) 0);
+        Arrays.fill(meldCounts, (byte) 0);
+        head = 0;
+        tail = Deck.SIZE;
+        for (int seat = 0; seat < seats; seat++) {
+            int count = seat == 0 ? 14 : 13;
+            for (int i = 0; i < count; i++) {
+                counts[seat * Card.TYPES + wall[head++]]++;
+            }
+            handSizes[seat] = (byte) count;
+        }
+        discardCount = 0;
+        turn = 0;
+        winner = GameResult.NO_SEAT;
+        over = false;
+        undoSize = 0;
+        rehash();
+    }
+
+    /**
+     * Sets up an arbitrary position: every seat's counts, the undrawn wall and whose turn it is.
+     * Used by search to start from a sampled deal. Clears the discards and the undo history.
+     *
+     * @param hands    27 tile counts per seat
+     * @param liveWall the tiles still to be drawn, top first
+     * @param from     index of the first wall tile in liveWall
+     * @param length   number of wall tiles
+     * @param turn     the seat to act
+     */
+    public void setUp(byte[][] hands, byte[] liveWall, int from, int length, int turn) {
+        for (int seat = 0; seat < seats; seat++) {
+            int size = 0;
+            for (int t = 0; t < Card.TYPES; t++) {
+                counts[seat * Card.TYPES + t] = hands[seat][t];
+                size += hands[seat][t];
+            }
+            handSizes[seat] = (byte) size;
+        }
+        head = Deck.SIZE - length;
+        tail = Deck.SIZE;
+        System.arraycopy(liveWall, from, wall, head, length);
+        Arrays.fill(visible, (byte) 0);
+        Arrays.fill(meldCounts, (byte) 0);
+        discardCount = 0;
+        this.turn = turn;
+        winner = GameResult.NO_SEAT;
+        over = false;
+        undoSize = 0;
+        rehash();
+    }
+
+    /**
+     * Adds an exposed meld to a position being set up with {@link #setUp}; the seat's counts
+     * do not include its tiles. Clears the undo history.
+     */
+    public void addMeld(int seat, Meld meld) {
+        int tile = meld.getCard().getId();
+        boolean gang = meld.getKind() == Claim.GANG;
+        melds[seat * 4 + meldCounts[seat]++] = (byte) (tile | (meld.getFromSeat() & 3) << 5 | (gang ? 0x80 : 0));
+        handHashes[seat] += Zobrist.meld(tile, gang);
+        undoSize = 0;
+    }
+
+    // ---- Moves; each one can be undone ----
+
+    /**
+     * The seat to act draws the top tile of the wall.
+     * @return the tile id drawn, or -1 if the wall is empty
+     */
+    public int draw() {
+        if (head == tail) {
+            return -1;
+        }
+        int tile = wall[head++];
+        counts[turn * Card.TYPES + tile]++;
+        handSizes[turn]++;
+        handHashes[turn] += Zobrist.tile(tile);
+        push(OP_DRAW, turn, tile, 0);
+        return tile;
+    }
+
+    /**
+     * The seat to act draws the last tile of the wall, as after a Gang.
+     * @return the tile id drawn, or -1 if the wall is empty
+     */
+    public int drawLast() {
+        if (head == tail) {
+            return -1;
+        }
+        int tile = wall[--tail];
+        counts[turn * Card.TYPES + tile]++;
+        handSizes[turn]++;
+        handHashes[turn] += Zobrist.tile(tile);
+        push(OP_DRAW_LAST, turn, tile, 0);
+        return tile;
+    }
+
+    /**
+     * The seat to act discards a tile it holds.
+     */
+    public void discard(int tile) {
+        int index = turn * Card.TYPES + tile;
+        if (counts[index] == 0) {
+            throw new IllegalArgumentException("Seat " + turn + " does not hold " + Card.of(tile));
+        }
+        counts[index]--;
+        handSizes[turn]--;
+        visible[tile]++;
+        discardTiles[discardCount] = (byte) tile;
+        discardSeats[discardCount] = (byte) turn;
+        discardCount++;
+        handHashes[turn] -= Zobrist.tile(tile);
+        discardHash += Zobrist.discard(turn, tile);
+        push(OP_DISCARD, turn, tile, 0);
+    }
+
+    /**
+     * A seat takes the last discard by Peng or Gang: the matching tiles it holds become an
+     * exposed meld, and it is that seat's turn. A Gang must then draw with {@link #drawLast()}.
+     */
+    public void claim(int seat, boolean gang) {
+        int tile = discardTiles[discardCount - 1];
+        int taken = gang ? 3 : 2;
+        int index = seat * Card.TYPES + tile;
+        if (counts[index] < taken) {
+            throw new IllegalArgumentException("Seat " + seat + " cannot claim " + Card.of(tile));
+        }
+        counts[index] -= taken;
+        handSizes[seat] -= taken;
+        visible[tile] += taken;
+        melds[seat * 4 + meldCounts[seat]++] = (byte) (tile | (turn & 3) << 5 | (gang ? 0x80 : 0));
+        handHashes[seat] += Zobrist.meld(tile, gang) - taken * Zobrist.tile(tile);
+        push(OP_CLAIM, seat, tile, turn | (gang ? 0x100 : 0));
+        turn = seat;
+    }
+
+    /**
+     * Passes the turn to the next seat.
+     */
+    public void nextTurn() {
+        push(OP_TURN, turn, 0, 0);
+        turn = (turn + 1) % seats;
+    }
+
+    /**
+     * Ends the hand with the given seat as the winner.
+     */
+    public void declareWin(int seat) {
+        push(OP_WIN, winner, 0, over ? 1 : 0);
+        winner = seat;
+        over = true;
+    }
+
+    /**
+     * Ends the hand without a winner.
+     */
+    public void declareDraw() {
+        push(OP_OVER, 0, 0, over ? 1 : 0);
+        over = true;
+    }
+
+    // ---- Snapshots ----
+
+    /**
+     * Returns a snapshot marker; {@link #restore(int)} with it undoes every later move.
+     */
+    public int mark() {
+        return undoSize;
+    }
+
+    /**
+     * Undoes moves until the state is as it was when the marker was taken.
+     */
+    public void restore(int mark) {
+        while (undoSize > mark) {
+            long record = undo[--undoSize];
+            int op = (int) (record & 0xFF);
+            int seat = (byte) (record >>> 8);
+            int tile = (byte) (record >>> 16);
+            int previous = (int) (record >>> 32);
+            switch (op) {
+                case OP_DRAW:
+                    head--;
+                    counts[seat * Card.TYPES + tile]--;
+                    handSizes[seat]--;
+                    handHashes[seat] -= Zobrist.tile(tile);
+                    break;
+                case OP_DISCARD:
+                    discardCount--;
+                    visible[tile]--;
+                    counts[seat * Card.TYPES + tile]++;
+                    handSizes[seat]++;
+                    handHashes[seat] += Zobrist.tile(tile);
+                    discardHash -= Zobrist.discard(seat, tile);
+                    break;
+                case OP_DRAW_LAST:
+                    tail++;
+                    counts[seat * Card.TYPES + tile]--;
+                    handSizes[seat]--;
+                    handHashes[seat] -= Zobrist.tile(tile);
+                    break;
+                case OP_CLAIM: {
+                    boolean gang = (previous & 0x100) != 0;
+                    int taken = gang ? 3 : 2;
+                    meldCounts[seat]--;
+                    counts[seat * Card.TYPES + tile] += taken;
+                    handSizes[seat] += taken;
+                    visible[tile] -= taken;
+                    handHashes[seat] -= Zobrist.meld(tile, gang) - taken * Zobrist.tile(tile);
+                    turn = previous & 0xFF;
+                    break;
+                }
+                case OP_TURN:
+                    turn = seat;
+                    break;
+                case OP_WIN:
+                    winner = seat;
+                    over = previous != 0;
+                    break;
+                case OP_OVER:
+                    over = previous != 0;
+                    break;
+                default:
+                    throw new IllegalStateException("Corrupt undo record " + record);
+            }
+        }
+    }
+
+    private void push(int op, int seat, int tile, int previous) {
+        if (undoSize == undo.length) {
+            undo = Arrays.copyOf(undo, undoSize * 2);
+        }
+        undo[undoSize++] = op | (long) (seat & 0xFF) << 8 | (long) (tile & 0xFF) << 16 | (long) previous << 32;
+    }
+
+    // ---- Queries ----
+
+    public int getSeatCount() {
+        return seats;
+    }
+
+    /**
+     * Returns the seat to act.
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+
+    public boolean isOver() {
+        return over;
+    }
+
+    public int countOf(int seat, int tile) {
+        return counts[seat * Card.TYPES + tile];
+    }
+
+    public int getHandSize(int seat) {
+        return handSizes[seat];
+    }
+
+    public int getMeldCount(int seat) {
+        return meldCounts[seat];
+    }
+
+    Meld getMeld(int seat, int index) {
+        int m = melds[seat * 4 + index] & 0xFF;
+        return new Meld((m & 0x80) != 0 ? Claim.GANG : Claim.PENG, Card.of(m & 0x1F), m >>> 5 & 3);
+    }
+
+    /**
+     * Copies a seat's 27 tile counts into dest.
+     */
+    public void copyCounts(int seat, byte[] dest) {
+        System.arraycopy(counts, seat * Card.TYPES, dest, 0, Card.TYPES);
+    }
+
+    /**
+     * Returns how many copies of a tile have been discarded.
+     */
+    public int visibleCount(int tile) {
+        return visible[tile];
+    }
+
+    public int getRemaining() {
+        return tail - head;
+    }
+
+    public int getDiscardCount() {
+        return discardCount;
+    }
+
+    public int getDiscardTile(int index) {
+        return discardTiles[index];
+    }
+
+    public int getDiscardSeat(int index) {
+        return discardSeats[index];
+    }
+
+    /**
+     * Copies the wall order, drawn tiles included, top of the deck first.
+     */
+    public void copyWall(byte[] dest) {
+        System.arraycopy(wall, 0, dest, 0, Deck.SIZE);
+    }
+
+    int getHead() {
+        return head;
+    }
+
+    int getTail() {
+        return tail;
+    }
+
+    /**
+     * Returns the Zobrist hash of the position, as {@link Game#getStateHash()} computes it for
+     * a running game: hands, melds, discards, wall cursors and the seat to act. Every move and
+     * undo updates it in O(1), so this costs a few operations per seat.
+     */
+    public long hash() {
+        long hash = discardHash ^ Zobrist.wall(head, tail) ^ Zobrist.turn(turn);
+        for (int seat = 0; seat < seats; seat++) {
+            hash ^= Zobrist.seat(seat, handHashes[seat]);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns true if the seat's concealed tiles form a complete hand.
+     */
+    public boolean isHu(int seat) {
+        return isHu(seat, handSizes[seat]);
+    }
+
+    private boolean isHu(int seat, int size) {
+        int offset = seat * Card.TYPES;
+        int k0 = HuEngine.suitKey(counts, offset);
+        int k1 = HuEngine.suitKey(counts, offset + 9);
+        int k2 = HuEngine.suitKey(counts, offset + 18);
+        return HuEngine.isHu(k0, k1, k2) || size == 14 && HuEngine.isSevenPairs(k0, k1, k2);
+    }
+
+    /**
+     * Scores the seat's hand as a win, with its melds.
+     *
+     * @param extraTile the discard won on, or -1 if the winning tile is in the hand
+     * @param situation ScoreCalculator's SELF_DRAWN, AFTER_GANG and LAST_TILE flags
+     * @return the packed ScoreCalculator result, or ScoreCalculator.NOT_A_WIN
+     */
+    public int score(int seat, int extraTile, int situation) {
+        return ScoreCalculator.evaluate(counts, seat * Card.TYPES, extraTile, meldSummary(seat), situation);
+    }
+
+    /**
+     * Scores the seat's hand as {@link #score(int, int, int)} does, through the given cache.
+     */
+    public int score(int seat, int extraTile, int situation, EvaluationCache cache) {
+        return cache.score(counts, seat * Card.TYPES, extraTile, meldSummary(seat), situation);
+    }
+
+    private long meldSummary(int seat) {
+        long summary = ScoreCalculator.NO_MELDS;
+        for (int i = 0; i < meldCounts[seat]; i++) {
+            int m = melds[seat * 4 + i] & 0xFF;
+            summary = ScoreCalculator.addMeld(summary, m & 0x1F, (m & 0x80) != 0);
+        }
+        return summary;
+    }
+
+    /**
+     * Returns true if the seat would complete its hand with the given tile (e.g. another seat's discard).
+     */
+    public boolean winsWith(int seat, int tile) {
+        int index = seat * Card.TYPES + tile;
+        if (counts[index] == 4) {
+            return false;
+        }
+        counts[index]++;
+        boolean hu = isHu(seat, handSizes[seat] + 1);
+        counts[index]--;
+        return hu;
+    }
+
+    // Used by Game.snapshot to fill the state from a running game.
+    void load(Deck deck, List<Player> players, byte[] visibleTiles, DiscardPile pile,
+              int turn, int winner, boolean over) {
+        deck.copyWall(wall);
+        head = deck.getHead();
+        tail = deck.getTail();
+        for (int seat = 0; seat < seats; seat++) {
+            Player p = players.get(seat);
+            System.arraycopy(p.getTileCounts(), 0, counts, seat * Card.TYPES, Card.TYPES);
+            handSizes[seat] = (byte) p.getHandCards().size();
+            List<Meld> playerMelds = p.getMelds();
+            meldCounts[seat] = (byte) playerMelds.size();
+            for (int i = 0; i < playerMelds.size(); i++) {
+                Meld m = playerMelds.get(i);
+                melds[seat * 4 + i] = (byte) (m.getCard().getId() | m.getFromSeat() << 5
+                        | (m.getKind() == Claim.GANG ? 0x80 : 0));
+            }
+        }
+        System.arraycopy(visibleTiles, 0, visible, 0, Card.TYPES);
+        discardCount = pile.size();
+        for (int i = 0; i < discardCount; i++) {
+            discardTiles[i] = (byte) pile.getCard(i).getId();
+            discardSeats[i] = (byte) pile.getSeat(i);
+        }
+        this.turn = turn;
+        this.winner = winner;
+        this.over = over;
+        undoSize = 0;
+        rehash();
+    }
+
+    // Recomputes the hashes from scratch after the state was loaded in bulk.
+    private void rehash() {
+        for (int seat = 0; seat < seats; seat++) {
+            long h = 0;
+            for (int t = 0; t < Card.TYPES; t++) {
+                h += counts[seat * Card.TYPES + t] * Zobrist.tile(t);
+            }
+            for (int i = 0; i < meldCounts[seat]; i++) {
+                int m = melds[seat * 4 + i] & 0xFF;
+                h += Zobrist.meld(m & 0x1F, (m & 0x80) != 0);
+            }
+            handHashes[seat] = h;
+        }
+        discardHash = 0;
+        for (int i = 0; i < discardCount; i++) {
+            discardHash += Zobrist.discard(discardSeats[i], discardTiles[i]);
+        }
+    }
+}
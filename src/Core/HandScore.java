@@ -0,0 +1,98 @@
+package Core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The score of one winner's hand, as worked out by {@link ScoreCalculator}.
+ */
+public final class HandScore {
+    private final int winner;
+    private final int fromSeat;
+    private final int winningTile;
+    private final int result;
+
+    /**
+     * @param winner      the winning seat
+     * @param fromSeat    the seat whose discard was won on, or GameResult.NO_SEAT for a self-draw
+     * @param winningTile the winning tile id
+     * @param result      the packed result from ScoreCalculator.evaluate
+     */
+    public HandScore(int winner, int fromSeat, int winningTile, int result) {
+        if (result == ScoreCalculator.NOT_A_WIN) {
+            throw new IllegalArgumentException("Seat " + winner + " does not have a winning hand");
+        }
+        this.winner = winner;
+        this.fromSeat = fromSeat;
+        this.winningTile = winningTile;
+        this.result = result;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns the seat that pays alone for a discard, or GameResult.NO_SEAT if every other seat pays.
+     */
+    public int getFromSeat() {
+        return fromSeat;
+    }
+
+    public boolean isSelfDrawn() {
+        return fromSeat == GameResult.NO_SEAT;
+    }
+
+    public Card getWinningTile() {
+        return Card.of(winningTile);
+    }
+
+    /**
+     * Returns the hand's patterns, in the order they are declared in {@link Fan}.
+     */
+    public List<Fan> getPatterns() {
+        List<Fan> patterns = new ArrayList<>();
+        int mask = ScoreCalculator.patterns(result);
+        for (int i = 0; mask >> i != 0; i++) {
+            if ((mask >> i & 1) != 0) {
+                patterns.add(Fan.of(i));
+            }
+        }
+        return patterns;
+    }
+
+    public boolean hasPattern(Fan pattern) {
+        return (ScoreCalculator.patterns(result) & pattern.bit()) != 0;
+    }
+
+    public int getGenCount() {
+        return ScoreCalculator.gens(result);
+    }
+
+    /**
+     * Returns the total fan, before the cap.
+     */
+    public int getFan() {
+        return ScoreCalculator.fan(result);
+    }
+
+    /**
+     * Returns what each paying seat owes the winner.
+     */
+    public int getPoints() {
+        return ScoreCalculator.points(result);
+    }
+
+    /**
+     * Returns the patterns and fan, e.g. "Qing Yi Se, Dui Dui Hu, Gen x1: 4 fan, 16 points".
+     */
+    public String describe() {
+        return ScoreCalculator.describe(result);
+    }
+
+    @Override
+    public String toString() {
+        return "Seat " + winner + (isSelfDrawn() ? " self-drawn " : " on seat " + fromSeat + "'s ") + getWinningTile()
+                + " (" + describe() + ")";
+    }
+}
@@ -0,0 +1,243 @@
+package Core;
+
+/**
+ * Table-driven Hu evaluation over a 27-slot tile count vector
+ * (Wan 1-9 in slots 0-8, Tiao 1-9 in slots 9-17, Tong 1-9 in slots 18-26).
+ *
+ * Each suit's nine counts are packed into a base-5 key (every count is 0-4), and a
+ * precomputed table records whether that suit splits into melds only, or into melds
+ * plus exactly one pair. Melds never cross suits, so a full hand check is three table
+ * lookups and allocates nothing.
+ *
+ * The same table entry also records the shapes the suit can be split into (all triplets,
+ * a terminal in every set, only 2, 5 and 8, and triplets of 1 and 9 only) and whether it
+ * splits into pairs, so {@link ScoreCalculator} reads a hand's patterns from the lookups the
+ * Hu check has already made. A shape bit only says that some split has that shape; two
+ * bits may come from different splits, so the one pair of shapes that scores together
+ * (all triplets, and a terminal in every set) has a bit of its own.
+ */
+public final class HuEngine {
+    /** Number of distinct per-suit keys (5^9). */
+    static final int SUIT_KEYS = 1953125;
+
+    /** Suit splits into melds (sequences and triplets) only. */
+    static final byte MELDS = 1;
+    /** Suit splits into melds plus exactly one pair. */
+    static final byte MELDS_PAIR = 2;
+    /** Some split of the suit uses triplets only (besides the pair). */
+    static final int TRIPLETS = 4;
+    /** Some split of the suit has a 1 or a 9 in every meld and in the pair. */
+    static final int TERMINALS = 8;
+    /** Some split of the suit is triplets and a pair of 2, 5 and 8 only. */
+    static final int TWO_FIVE_EIGHT = 16;
+    /** Some split of the suit is triplets and a pair of 1 and 9 only (TRIPLETS and TERMINALS at once). */
+    static final int TERMINAL_TRIPLETS = 32;
+    /** Every count in the suit is even, so it splits into pairs (a four counting as two). */
+    static final int PAIRS = 64;
+
+    /** All shape bits; an empty suit has every shape. */
+    static final int SHAPES = TRIPLETS | TERMINALS | TWO_FIVE_EIGHT | TERMINAL_TRIPLETS;
+
+    /** POW5[n] is the weight of number n + 1 inside a suit key. */
+    static final int[] POW5 = {1, 5, 25, 125, 625, 3125, 15625, 78125, 390625};
+
+    private static final byte[] TABLE = buildTable();
+
+    private HuEngine() {
+    }
+
+    /**
+     * Checks whether a count vector forms a winning hand of melds plus one pair.
+     * The caller is responsible for the total tile count (14 for a closed hand).
+     *
+     * @param counts 27 tile counts, each 0-4
+     * @return true if the counts split into melds and exactly one pair
+     */
+    public static boolean isHu(byte[] counts) {
+        return isHu(suitKey(counts, 0), suitKey(counts, 9), suitKey(counts, 18));
+    }
+
+    /**
+     * Checks whether three suit keys together form melds plus exactly one pair.
+     *
+     * @param wanKey  base-5 key of the Wan counts
+     * @param tiaoKey base-5 key of the Tiao counts
+     * @param tongKey base-5 key of the Tong counts
+     * @return true if the suits form a winning hand
+     */
+    public static boolean isHu(int wanKey, int tiaoKey, int tongKey) {
+        int a = TABLE[wanKey] & 3;
+        int b = TABLE[tiaoKey] & 3;
+        int c = TABLE[tongKey] & 3;
+        if (a == 0 || b == 0 || c == 0) {
+            return false;
+        }
+        // A key's size fixes which flag it can carry, so exactly one pair suit sums to 4.
+        return a + b + c == MELDS + MELDS + MELDS_PAIR;
+    }
+
+    /**
+     * Checks whether three suit keys together form seven pairs. The caller is responsible for
+     * the hand being 14 concealed tiles.
+     */
+    public static boolean isSevenPairs(int wanKey, int tiaoKey, int tongKey) {
+        return (TABLE[wanKey] & TABLE[tiaoKey] & TABLE[tongKey] & PAIRS) != 0;
+    }
+
+    /**
+     * Returns all flags of a single suit key: the decomposition (0, MELDS or MELDS_PAIR in the
+     * low two bits), the shape bits and PAIRS.
+     */
+    static int suitFlag(int key) {
+        return TABLE[key] & 0xFF;
+    }
+
+    /**
+     * Returns the numbers a suit is waiting on: bit n (0-8) is set if adding number n + 1 makes
+     * the suit split into melds only, and bit n + 9 if it makes the suit split into melds plus
+     * one pair. Numbers the suit already holds four of are left out.
+     */
+    static int suitWaits(int key) {
+        int waits = 0;
+        int rest = key;
+        for (int n = 0; n < 9; n++, rest /= 5) {
+            if (rest % 5 < 4) {
+                int flag = TABLE[key + POW5[n]] & 3;
+                if (flag == MELDS) {
+                    waits |= 1 << n;
+                } else if (flag == MELDS_PAIR) {
+                    waits |= 1 << (n + 9);
+                }
+            }
+        }
+        return waits;
+    }
+
+    /**
+     * Combines three suits' {@link #suitWaits} into the tiles that complete melds plus one pair,
+     * as a 27-bit mask indexed by tile id. The caller is responsible for the total tile count.
+     */
+    static int waits(int wanKey, int tiaoKey, int tongKey, int wanWaits, int tiaoWaits, int tongWaits) {
+        int a = TABLE[wanKey] & 3;
+        int b = TABLE[tiaoKey] & 3;
+        int c = TABLE[tongKey] & 3;
+        return completing(wanWaits, b, c) | completing(tiaoWaits, a, c) << 9 | completing(tongWaits, a, b) << 18;
+    }
+
+    // The numbers of one suit that win, given the decompositions of the other two suits.
+    private static int completing(int suitWaits, int other1, int other2) {
+        if (other1 == 0 || other2 == 0) {
+            return 0;
+        }
+        int pairs = (other1 == MELDS_PAIR ? 1 : 0) + (other2 == MELDS_PAIR ? 1 : 0);
+        if (pairs == 0) {
+            return suitWaits >>> 9;
+        }
+        return pairs == 1 ? suitWaits & 0x1FF : 0;
+    }
+
+    /**
+     * Packs the nine counts starting at the given offset into a base-5 suit key.
+     *
+     * @param counts the 27-slot count vector
+     * @param offset 0, 9 or 18
+     * @return the suit key
+     */
+    public static int suitKey(byte[] counts, int offset) {
+        int key = 0;
+        for (int n = 8; n >= 0; n--) {
+            key = key * 5 + counts[offset + n];
+        }
+        return key;
+    }
+
+    /**
+     * Builds the per-suit table by enumerating every multiset of up to four melds,
+     * with and without a pair, that fits within four copies of each number, and then
+     * every suit made of pairs.
+     */
+    private static byte[] buildTable() {
+        byte[] table = new byte[SUIT_KEYS];
+        addMelds(table, new int[9], 0, 0, 0, SHAPES);
+        addPairs(table, new int[9], 0, 0);
+        return table;
+    }
+
+    /**
+     * Recursively adds melds in non-decreasing order (0-8 triplets, 9-15 sequences)
+     * and marks every reachable shape, plus every shape with one extra pair.
+     *
+     * @param shape the shape bits every meld so far satisfies
+     */
+    private static void addMelds(byte[] table, int[] counts, int key, int firstMeld, int meldCount, int shape) {
+        table[key] |= MELDS | shape;
+        for (int p = 0; p < 9; p++) {
+            if (counts[p] <= 2) {
+                table[key + 2 * POW5[p]] |= MELDS_PAIR | shape & tripletShape(p);
+            }
+        }
+        if (meldCount == 4) {
+            return;
+        }
+        for (int m = firstMeld; m < 16; m++) {
+            if (m < 9) {
+                if (counts[m] > 1) {
+                    continue;
+                }
+                int next = shape & tripletShape(m);
+                counts[m] += 3;
+                addMelds(table, counts, key + 3 * POW5[m], m, meldCount + 1, next);
+                counts[m] -= 3;
+            } else {
+                int n = m - 9;
+                if (counts[n] == 4 || counts[n + 1] == 4 || counts[n + 2] == 4) {
+                    continue;
+                }
+                int next = shape & (isTerminal(n) || isTerminal(n + 2) ? TERMINALS : 0);
+                counts[n]++;
+                counts[n + 1]++;
+                counts[n + 2]++;
+                addMelds(table, counts, key + POW5[n] + POW5[n + 1] + POW5[n + 2], m, meldCount + 1, next);
+                counts[n]--;
+                counts[n + 1]--;
+                counts[n + 2]--;
+            }
+        }
+    }
+
+    /**
+     * Marks every suit whose counts are all 0, 2 or 4 (at most seven pairs).
+     */
+    private static void addPairs(byte[] table, int[] counts, int key, int n) {
+        if (n == 9) {
+            table[key] |= PAIRS;
+            return;
+        }
+        for (int c = 0; c <= 4; c += 2) {
+            counts[n] = c;
+            addPairs(table, counts, key + c * POW5[n], n + 1);
+        }
+        counts[n] = 0;
+    }
+
+    /**
+     * Returns the shapes a triplet (or the pair) of the given number keeps; exposed Pengs and
+     * Gangs count as triplets.
+     *
+     * @param n number 0-8 within its suit
+     */
+    static int tripletShape(int n) {
+        if (isTerminal(n)) {
+            return TRIPLETS | TERMINALS | TERMINAL_TRIPLETS;
+        }
+        return isTwoFiveEight(n) ? TRIPLETS | TWO_FIVE_EIGHT : TRIPLETS;
+    }
+
+    private static boolean isTerminal(int n) {
+        return n == 0 || n == 8;
+    }
+
+    private static boolean isTwoFiveEight(int n) {
+        return n == 1 || n == 4 || n == 7;
+    }
+}
@@ -0,0 +1,268 @@
+package Core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Differential fuzzer: checks a Hu implementation against a {@link HuOracle} on random hands.
+ *
+ * Uniformly random hands almost never win, so only half of the hands are drawn that way; the
+ * other half start from a random winning hand of the oracle, and every other one of those has
+ * a tile moved, which gives near-misses. Like {@link Tournament}, the hand range is split on a
+ * fork-join pool with one {@link SplittableRandom} branch per half, so a run depends only on
+ * the seed and the hand count.
+ */
+public class HuFuzzer {
+    /** HuEngine's check of a concealed 14-tile hand, as used by RuleChecker.validateHu. */
+    public static final Predicate<byte[]> HU_ENGINE = counts -> {
+        int wanKey = HuEngine.suitKey(counts, 0);
+        int tiaoKey = HuEngine.suitKey(counts, 9);
+        int tongKey = HuEngine.suitKey(counts, 18);
+        return HuEngine.isHu(wanKey, tiaoKey, tongKey) || HuEngine.isSevenPairs(wanKey, tiaoKey, tongKey);
+    };
+
+    /**
+     * RuleChecker.validateHu on a player holding the hand, in both shapes the game asks it: all
+     * 14 tiles and no card (a self-drawn win), and 13 tiles with the 14th as the card (a claimed
+     * discard, answered from the player's waits), with each distinct tile of the hand in turn as
+     * the card. If the shapes disagree, one of them is wrong, so the predicate returns the wrong
+     * answer (by {@link HuOracle#referenceHu}) and the fuzzer counts the hand as a mismatch.
+     */
+    public static final Predicate<byte[]> RULE_CHECKER = new Predicate<byte[]>() {
+        private final RuleChecker rules = new RuleChecker();
+        private final ThreadLocal<Player> players = ThreadLocal.withInitial(() -> new AIPlayer("Fuzzer"));
+
+        @Override
+        public boolean test(byte[] counts) {
+            Player player = players.get();
+            player.setHandCounts(counts);
+            boolean selfDrawn = rules.validateHu(player, null);
+            for (int t = 0; t < Card.TYPES; t++) {
+                if (counts[t] == 0) {
+                    continue;
+                }
+                Card card = Card.of(t);
+                player.discardCard(card);
+                boolean claimed = rules.validateHu(player, card);
+                player.drawCard(card);
+                if (claimed != selfDrawn) {
+                    return !HuOracle.referenceHu(counts);
+                }
+            }
+            return selfDrawn;
+        }
+    };
+
+    /** Number of hands a leaf task checks before it stops splitting. */
+    private static final long HANDS_PER_TASK = 1 << 16;
+    /** Mismatching hands kept for the report. */
+    private static final int MAX_EXAMPLES = 10;
+
+    private final HuOracle oracle;
+    private final Predicate<byte[]> candidate;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param oracle    the reference answers
+     * @param candidate the implementation under test; it is given 27 tile counts making up
+     *                  14 tiles and must leave them unchanged
+     */
+    public HuFuzzer(HuOracle oracle, Predicate<byte[]> candidate) {
+        this(oracle, candidate, ForkJoinPool.commonPool());
+    }
+
+    public HuFuzzer(HuOracle oracle, Predicate<byte[]> candidate, ForkJoinPool pool) {
+        this.oracle = oracle;
+        this.candidate = candidate;
+        this.pool = pool;
+    }
+
+    /**
+     * Checks the given number of hands.
+     *
+     * @param hands number of hands
+     * @param seed  master seed; the same seed and hand count check the same hands
+     * @return the mismatches found
+     */
+    public Report run(long hands, long seed) {
+        long start = System.nanoTime();
+        Report report = pool.invoke(new FuzzTask(0, hands, new SplittableRandom(seed)));
+        report.nanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * Outcome of a run.
+     */
+    public static final class Report {
+        private long hands;
+        private long wins;
+        private long mismatches;
+        private long nanos;
+        private final List<Long> examples = new ArrayList<>();
+
+        public long getHands() {
+            return hands;
+        }
+
+        /**
+         * Returns how many of the hands the oracle says win.
+         */
+        public long getWins() {
+            return wins;
+        }
+
+        public long getMismatches() {
+            return mismatches;
+        }
+
+        /**
+         * Returns the ranks (see {@link HuOracle#rank}) of the first mismatching hands found.
+         */
+        public List<Long> getExamples() {
+            return examples;
+        }
+
+        public double getHandsPerSecond() {
+            return nanos == 0 ? 0 : hands * 1e9 / nanos;
+        }
+
+        private Report merge(Report other) {
+            hands += other.hands;
+            wins += other.wins;
+            mismatches += other.mismatches;
+            for (int i = 0; i < other.examples.size() && examples.size() < MAX_EXAMPLES; i++) {
+                examples.add(other.examples.get(i));
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%d hands (%d winning), %d mismatches, %.0f hands/s",
+                    hands, wins, mismatches, getHandsPerSecond()));
+            byte[] counts = new byte[Card.TYPES];
+            for (long rank : examples) {
+                HuOracle.unrank(rank, counts);
+                sb.append(System.lineSeparator()).append("  ");
+                for (int t = 0; t < Card.TYPES; t++) {
+                    for (int k = 0; k < counts[t]; k++) {
+                        sb.append(Card.of(t)).append(' ');
+                    }
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    private class FuzzTask extends RecursiveTask<Report> {
+        private final long from;
+        private final long to;
+        private final SplittableRandom random;
+
+        FuzzTask(long from, long to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Report compute() {
+            if (to - from <= HANDS_PER_TASK) {
+                Report report = new Report();
+                byte[] counts = new byte[Card.TYPES];
+                for (long i = from; i < to; i++) {
+                    sample(i, counts);
+                    boolean expected = oracle.isHu(counts);
+                    report.hands++;
+                    if (expected) {
+                        report.wins++;
+                    }
+                    if (candidate.test(counts) != expected) {
+                        report.mismatches++;
+                        if (report.examples.size() < MAX_EXAMPLES) {
+                            report.examples.add(HuOracle.rank(counts));
+                        }
+                    }
+                }
+                return report;
+            }
+            long mid = (from + to) >>> 1;
+            FuzzTask right = new FuzzTask(mid, to, random.split());
+            right.fork();
+            Report left = new FuzzTask(from, mid, random).compute();
+            return left.merge(right.join());
+        }
+
+        private void sample(long i, byte[] counts) {
+            if ((i & 1) == 0 || oracle.getWinCount() == 0) {
+                Arrays.fill(counts, (byte) 0);
+                for (int n = 0; n < HuOracle.HAND_SIZE; ) {
+                    int t = random.nextInt(Card.TYPES);
+                    if (counts[t] < Card.COPIES) {
+                        counts[t]++;
+                        n++;
+                    }
+                }
+                return;
+            }
+            HuOracle.unrank(oracle.getWinningRank(random.nextInt(oracle.getWinCount())), counts);
+            if ((i & 2) != 0) {
+                int from;
+                int to;
+                do {
+                    from = random.nextInt(Card.TYPES);
+                } while (counts[from] == 0);
+                do {
+                    to = random.nextInt(Card.TYPES);
+                } while (to == from || counts[to] == Card.COPIES);
+                counts[from]--;
+                counts[to]++;
+            }
+        }
+    }
+
+    /**
+     * Fuzzes {@link #RULE_CHECKER}, or {@link #HU_ENGINE} alone if the fourth argument is
+     * "engine". The oracle is read from the given file (default hu-oracle.bin),
+     * or enumerated and written there first if the file does not exist.
+     *
+     * Usage: HuFuzzer [oracle file] [hands] [seed] [rules|engine]
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "hu-oracle.bin");
+        long hands = args.length > 1 ? Long.parseLong(args[1]) : 100_000_000L;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : new SplittableRandom().nextLong();
+        Predicate<byte[]> candidate = args.length > 3 && args[3].equals("engine") ? HU_ENGINE : RULE_CHECKER;
+
+        HuOracle oracle;
+        if (Files.exists(path)) {
+            oracle = HuOracle.read(path);
+        } else {
+            System.out.println("Enumerating " + HuOracle.HAND_COUNT + " hands on "
+                    + ForkJoinPool.commonPool().getParallelism() + " workers...");
+            long start = System.nanoTime();
+            oracle = HuOracle.enumerate(ForkJoinPool.commonPool());
+            System.out.printf("%d winning hands in %.1f s%n", oracle.getWinCount(), (System.nanoTime() - start) / 1e9);
+            oracle.write(path);
+            System.out.println("Wrote " + path + " (" + Files.size(path) + " bytes)");
+        }
+
+        System.out.println("Seed " + seed);
+        Report report = new HuFuzzer(oracle, candidate).run(hands, seed);
+        System.out.println(report);
+        if (report.getMismatches() > 0) {
+            System.exit(1);
+        }
+    }
+}
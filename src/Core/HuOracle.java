@@ -0,0 +1,332 @@
+package Core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The exact set of winning concealed 14-tile hands, as a reference for faster Hu checks.
+ *
+ * {@link #referenceHu} is the original partition search that RuleChecker used before
+ * {@link HuEngine} (try every pair, then take a triplet or a sequence off the lowest tile,
+ * recursively), plus the seven-pairs rule. {@link #enumerate} runs it on every hand there is:
+ * each multiset of 14 tiles over the 27 tile types with at most four copies, about 2.1e10 of
+ * them. Hands are numbered by their rank in lexicographic order of the count vector (see
+ * {@link #rank}), so the enumeration needs no storage besides the winners, and the work splits
+ * into independent tasks by the counts of the first few tile types.
+ *
+ * The answer is the sorted list of winning ranks. On disk it is stored as varint gaps between
+ * consecutive ranks ({@link #write}, {@link #read}); in memory {@link #isHu} is a rank and a
+ * binary search.
+ */
+public final class HuOracle {
+    /** Tiles in a complete concealed hand. */
+    public static final int HAND_SIZE = 14;
+
+    private static final int MAGIC = 0x48754F72; // "HuOr"
+    private static final int VERSION = 1;
+
+    /** Tile types whose counts are fixed per enumeration task. */
+    private static final int PREFIX_TYPES = 3;
+
+    // WAYS[t][n]: ways to place n tiles on tile types t..26, at most four of each.
+    private static final long[][] WAYS = buildWays();
+
+    /** Number of distinct 14-tile hands. */
+    public static final long HAND_COUNT = WAYS[0][HAND_SIZE];
+
+    private final long[] wins;
+
+    private HuOracle(long[] wins) {
+        this.wins = wins;
+    }
+
+    /**
+     * Checks a hand with the original partition search: some tile with at least two copies is
+     * the pair, and the rest splits into triplets and sequences taken off the lowest remaining
+     * tile, triplet first. Seven pairs (a four counting as two) also wins.
+     *
+     * @param counts 27 tile counts making up 14 tiles; restored before returning
+     * @return true if the hand wins
+     */
+    public static boolean referenceHu(byte[] counts) {
+        boolean sevenPairs = true;
+        for (int t = 0; t < Card.TYPES; t++) {
+            if (counts[t] >= 2) {
+                counts[t] -= 2;
+                boolean melds = canPartition(counts, 0);
+                counts[t] += 2;
+                if (melds) {
+                    return true;
+                }
+            }
+            sevenPairs &= (counts[t] & 1) == 0;
+        }
+        return sevenPairs;
+    }
+
+    private static boolean canPartition(byte[] counts, int from) {
+        int t = from;
+        while (t < Card.TYPES && counts[t] == 0) {
+            t++;
+        }
+        if (t == Card.TYPES) {
+            return true;
+        }
+        if (counts[t] >= 3) {
+            counts[t] -= 3;
+            boolean ok = canPartition(counts, t);
+            counts[t] += 3;
+            if (ok) {
+                return true;
+            }
+        }
+        if (t % 9 <= 6 && counts[t + 1] > 0 && counts[t + 2] > 0) {
+            counts[t]--;
+            counts[t + 1]--;
+            counts[t + 2]--;
+            boolean ok = canPartition(counts, t);
+            counts[t]++;
+            counts[t + 1]++;
+            counts[t + 2]++;
+            return ok;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the rank of a 14-tile hand among all hands, in lexicographic order of the counts
+     * (the hand with the fewest 1 Wan first).
+     *
+     * @param counts 27 tile counts making up 14 tiles
+     * @return the rank, 0 to HAND_COUNT - 1
+     */
+    public static long rank(byte[] counts) {
+        return prefixRank(counts, Card.TYPES - 1);
+    }
+
+    // The part of a hand's rank fixed by its counts of the given number of leading types.
+    private static long prefixRank(byte[] counts, int types) {
+        long rank = 0;
+        int left = HAND_SIZE;
+        for (int t = 0; t < types; t++) {
+            long[] ways = WAYS[t + 1];
+            for (int c = 0; c < counts[t]; c++) {
+                rank += ways[left--];
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Fills in the counts of the hand with the given rank.
+     *
+     * @param rank   0 to HAND_COUNT - 1
+     * @param counts receives 27 tile counts
+     */
+    public static void unrank(long rank, byte[] counts) {
+        if (rank < 0 || rank >= HAND_COUNT) {
+            throw new IllegalArgumentException("No hand has rank " + rank);
+        }
+        int left = HAND_SIZE;
+        for (int t = 0; t < Card.TYPES; t++) {
+            long[] ways = WAYS[t + 1];
+            int c = 0;
+            while (rank >= ways[left]) {
+                rank -= ways[left--];
+                c++;
+            }
+            counts[t] = (byte) c;
+        }
+    }
+
+    /**
+     * Runs {@link #referenceHu} on every 14-tile hand, one task per count prefix of the first
+     * tile types. This takes a while: about ten minutes on one core.
+     *
+     * @param pool the pool to run on
+     * @return the oracle
+     */
+    public static HuOracle enumerate(ForkJoinPool pool) {
+        return new HuOracle(pool.invoke(new EnumerateTask()));
+    }
+
+    /**
+     * Looks a hand up in the answer set.
+     *
+     * @param counts 27 tile counts making up 14 tiles
+     * @return true if the hand wins
+     */
+    public boolean isHu(byte[] counts) {
+        return Arrays.binarySearch(wins, rank(counts)) >= 0;
+    }
+
+    /**
+     * Returns the number of winning hands.
+     */
+    public int getWinCount() {
+        return wins.length;
+    }
+
+    /**
+     * Returns the rank of the i-th winning hand, in rank order.
+     */
+    public long getWinningRank(int i) {
+        return wins[i];
+    }
+
+    /**
+     * Writes the answer set: a header, then the gaps between consecutive winning ranks as
+     * unsigned LEB128 varints.
+     */
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(HAND_COUNT);
+            out.writeInt(wins.length);
+            long previous = 0;
+            for (long rank : wins) {
+                long gap = rank - previous;
+                previous = rank;
+                while (gap >= 0x80) {
+                    out.writeByte((int) gap & 0x7F | 0x80);
+                    gap >>>= 7;
+                }
+                out.writeByte((int) gap);
+            }
+        }
+    }
+
+    /**
+     * Reads an answer set written by {@link #write}.
+     *
+     * @throws IOException if the file is not an answer set for this tile set
+     */
+    public static HuOracle read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(path + " is not a Hu oracle file");
+            }
+            if (in.readLong() != HAND_COUNT) {
+                throw new IOException(path + " was enumerated over a different set of hands");
+            }
+            long[] wins = new long[in.readInt()];
+            long rank = 0;
+            for (int i = 0; i < wins.length; i++) {
+                long gap = 0;
+                int shift = 0;
+                int b;
+                do {
+                    b = in.readUnsignedByte();
+                    gap |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                rank += gap;
+                wins[i] = rank;
+            }
+            return new HuOracle(wins);
+        }
+    }
+
+    private static long[][] buildWays() {
+        long[][] ways = new long[Card.TYPES + 1][HAND_SIZE + 1];
+        ways[Card.TYPES][0] = 1;
+        for (int t = Card.TYPES - 1; t >= 0; t--) {
+            for (int n = 0; n <= HAND_SIZE; n++) {
+                for (int c = 0; c <= Math.min(Card.COPIES, n); c++) {
+                    ways[t][n] += ways[t + 1][n - c];
+                }
+            }
+        }
+        return ways;
+    }
+
+    /** Forks one task per count prefix and concatenates their winners, which come out in rank order. */
+    private static class EnumerateTask extends RecursiveTask<long[]> {
+        @Override
+        protected long[] compute() {
+            List<PrefixTask> tasks = new ArrayList<>();
+            addPrefixes(tasks, new byte[Card.TYPES], 0, HAND_SIZE);
+            invokeAll(tasks);
+            int total = 0;
+            for (PrefixTask task : tasks) {
+                total += task.join().length;
+            }
+            long[] wins = new long[total];
+            int n = 0;
+            for (PrefixTask task : tasks) {
+                long[] part = task.join();
+                System.arraycopy(part, 0, wins, n, part.length);
+                n += part.length;
+            }
+            return wins;
+        }
+
+        private static void addPrefixes(List<PrefixTask> tasks, byte[] counts, int t, int left) {
+            if (t == PREFIX_TYPES) {
+                tasks.add(new PrefixTask(counts.clone(), left));
+                return;
+            }
+            for (int c = 0; c <= Math.min(Card.COPIES, left); c++) {
+                counts[t] = (byte) c;
+                addPrefixes(tasks, counts, t + 1, left - c);
+            }
+            counts[t] = 0;
+        }
+    }
+
+    /** Checks every hand that starts with the given counts, in rank order. */
+    private static class PrefixTask extends RecursiveTask<long[]> {
+        private final byte[] counts;
+        private final int left;
+        private long rank;
+        private long[] wins = new long[1024];
+        private int winCount;
+
+        PrefixTask(byte[] prefix, int left) {
+            this.counts = prefix;
+            this.left = left;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (WAYS[PREFIX_TYPES][left] == 0) {
+                return new long[0];
+            }
+            rank = prefixRank(counts, PREFIX_TYPES);
+            visit(PREFIX_TYPES, left);
+            return Arrays.copyOf(wins, winCount);
+        }
+
+        private void visit(int t, int left) {
+            if (t == Card.TYPES) {
+                if (referenceHu(counts)) {
+                    if (winCount == wins.length) {
+                        wins = Arrays.copyOf(wins, winCount * 2);
+                    }
+                    wins[winCount++] = rank;
+                }
+                rank++;
+                return;
+            }
+            long[] ways = WAYS[t + 1];
+            for (int c = 0; c <= Math.min(Card.COPIES, left); c++) {
+                if (ways[left - c] != 0) {
+                    counts[t] = (byte) c;
+                    visit(t + 1, left - c);
+                }
+            }
+            counts[t] = 0;
+        }
+    }
+}
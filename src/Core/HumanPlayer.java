@@ -1,6 +1,13 @@
 package Core;
 
+import java.util.concurrent.CompletableFuture;
+
 public class HumanPlayer extends Player {
+    // Completed by the UI when the user confirms a discard during their turn.
+    private CompletableFuture<Card> pendingDiscard;
+    // Completed by the UI when the user answers another seat's discard.
+    private CompletableFuture<Claim> pendingClaim;
+    private boolean promptForClaims;
 
     public HumanPlayer(String name) {
         super(name, true);
@@ -12,50 +19,113 @@ public class HumanPlayer extends Player {
      */
     @Override
     public void playTurn() {
-        System.out.println("It's " + name + "'s turn.");
-        System.out.println("Current hand: " + handToString());
+        eventLog.publish(GameEvent.Type.TURN, seat, -1, 0);
         // In a UI environment, wait for user input (handled by InputHandler).
     }
 
     /**
      * Called when the user selects a card (first left-click).
-     * The card is marked as selected.
+     * Selection state is kept by the UI, since every copy of a tile type shares one Card.
      *
      * @param card The card that is selected.
      */
     public void selectCard(Card card) {
-        if (!card.isSelected()) {
-            card.setSelected(true);
-            System.out.println(name + " selected " + card);
-            // The card's picture is moved upward in InputHandler.
-        }
+        eventLog.publish(GameEvent.Type.SELECT, seat, card.getId(), 0);
+        // The card's picture is moved upward in InputHandler.
     }
 
     /**
      * Called when the user confirms the selected card to discard it (second left-click).
-     * The card is removed from the hand.
+     * This runs on the UI thread, so it only hands the card to the game loop waiting in
+     * {@link #requestDiscard()}; the game loop removes it from the hand.
      *
      * @param card The card to discard.
+     * @return true if the game was waiting for a discard and the card is in the hand.
      */
-    public void confirmDiscard(Card card) {
-        if (card.isSelected()) {
-            discardCard(card);
-            System.out.println(name + " confirmed discard of " + card);
-            // The game is notified that the card has been played in InputHandler.
+    public synchronized boolean confirmDiscard(Card card) {
+        if (pendingDiscard == null || countOf(card.getId()) == 0) {
+            return false;
         }
+        CompletableFuture<Card> discard = pendingDiscard;
+        pendingDiscard = null;
+        eventLog.publish(GameEvent.Type.CONFIRM_DISCARD, seat, card.getId(), 0);
+        discard.complete(card);
+        return true;
     }
 
     /**
      * Called when the user cancels the card selection (right-click).
-     * The card is deselected.
      *
      * @param card The card to cancel selection.
      */
     public void cancelSelection(Card card) {
-        if (card.isSelected()) {
-            card.setSelected(false);
-            System.out.println(name + " cancelled selection of " + card);
-            // The card's picture is moved back to its original position in InputHandler.
+        eventLog.publish(GameEvent.Type.CANCEL_SELECT, seat, card.getId(), 0);
+        // The card's picture is moved back to its original position in InputHandler.
+    }
+
+    /**
+     * Called by the game loop at the start of the human's discard.
+     * The returned future completes once the user confirms a card through the UI.
+     *
+     * @return a future for the card the user chooses to discard.
+     */
+    public synchronized CompletableFuture<Card> requestDiscard() {
+        pendingDiscard = new CompletableFuture<>();
+        return pendingDiscard;
+    }
+
+    /**
+     * Sets whether claims wait for the user. Without a user interface to answer them (console
+     * play), the human takes a Hu and passes otherwise, as {@link Player} does.
+     */
+    public synchronized void setPromptForClaims(boolean promptForClaims) {
+        this.promptForClaims = promptForClaims;
+    }
+
+    /**
+     * Called by the game when the user may claim another seat's discard. With prompting on, the
+     * returned future completes when the UI calls {@link #confirmClaim}, or the claim times out.
+     */
+    @Override
+    public synchronized CompletableFuture<Claim> requestClaim(int options, Card card, int fromSeat) {
+        if (!promptForClaims) {
+            return super.requestClaim(options, card, fromSeat);
+        }
+        pendingClaim = new CompletableFuture<>();
+        return pendingClaim;
+    }
+
+    /**
+     * Called by the UI when the user answers a discard (Peng, Gang, Hu or Pass).
+     *
+     * @return true if the game was still waiting for the answer.
+     */
+    public synchronized boolean confirmClaim(Claim claim) {
+        if (pendingClaim == null) {
+            return false;
+        }
+        CompletableFuture<Claim> claimFuture = pendingClaim;
+        pendingClaim = null;
+        return claimFuture.complete(claim);
+    }
+
+    /**
+     * Drops any claim the game is waiting for; it counts as a pass.
+     */
+    public synchronized void cancelPendingClaim() {
+        if (pendingClaim != null) {
+            pendingClaim.complete(Claim.PASS);
+            pendingClaim = null;
+        }
+    }
+
+    /**
+     * Drops any discard the game loop is waiting for (e.g. when the game restarts).
+     */
+    public synchronized void cancelPendingDiscard() {
+        if (pendingDiscard != null) {
+            pendingDiscard.cancel(false);
+            pendingDiscard = null;
         }
     }
 }
\ No newline at end of file
@@ -1,8 +1,31 @@
 package Core;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 public class Main {
-    public static void main(String[] args) {
+    /**
+     * Plays one hand on the console.
+     * Usage: Main [record file] [AI budget in ms]
+     * @param args optionally a file to append the hand's record to (see GameRecorder), and a
+     *             thinking time per decision to switch the AI seats to search
+     */
+    public static void main(String[] args) throws IOException {
         Game game = new Game();
+        long budget = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        if (budget > 0) {
+            game.useSearchAI(budget);
+        }
+        game.getEventLog().addSink(new ConsoleEventSink(game.getSeatNames()));
+        GameRecorder recorder = null;
+        if (args.length > 0) {
+            recorder = new GameRecorder(Path.of(args[0]));
+            game.addListener(recorder);
+        }
         game.startGame();
+        game.getEventLog().close();
+        if (recorder != null) {
+            recorder.close();
+        }
     }
 }
\ No newline at end of file
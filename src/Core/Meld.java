@@ -0,0 +1,48 @@
+package Core;
+
+/**
+ * An exposed set made by claiming a discard: three of a kind for Peng, four for Gang.
+ */
+public final class Meld {
+    private final Claim kind;
+    private final Card card;
+    private final int fromSeat;
+
+    /**
+     * @param kind     Claim.PENG or Claim.GANG
+     * @param card     the tile of the set
+     * @param fromSeat the seat whose discard was claimed
+     */
+    public Meld(Claim kind, Card card, int fromSeat) {
+        if (kind != Claim.PENG && kind != Claim.GANG) {
+            throw new IllegalArgumentException("Not a meld: " + kind);
+        }
+        this.kind = kind;
+        this.card = card;
+        this.fromSeat = fromSeat;
+    }
+
+    public Claim getKind() {
+        return kind;
+    }
+
+    public Card getCard() {
+        return card;
+    }
+
+    public int getFromSeat() {
+        return fromSeat;
+    }
+
+    /**
+     * Returns the number of tiles in the set.
+     */
+    public int size() {
+        return kind == Claim.GANG ? 4 : 3;
+    }
+
+    @Override
+    public String toString() {
+        return kind + "(" + card + ")";
+    }
+}
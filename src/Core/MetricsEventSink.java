@@ -0,0 +1,37 @@
+package Core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts game events by type, e.g. to monitor simulation throughput.
+ * Counts can be read from any thread while the log is running.
+ */
+public class MetricsEventSink implements GameEventSink {
+    private final AtomicLongArray counts = new AtomicLongArray(GameEvent.Type.values().length);
+
+    @Override
+    public void onEvent(long event) {
+        int type = GameEvent.type(event).ordinal();
+        // Only the log's consumer thread writes, so a plain read-modify-write is enough.
+        counts.lazySet(type, counts.get(type) + 1);
+    }
+
+    /**
+     * Returns how many events of the given type have been consumed.
+     */
+    public long getCount(GameEvent.Type type) {
+        return counts.get(type.ordinal());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (GameEvent.Type type : GameEvent.Type.values()) {
+            long count = getCount(type);
+            if (count > 0) {
+                sb.append(type).append('=').append(count).append(' ');
+            }
+        }
+        return sb.toString().trim();
+    }
+}
@@ -0,0 +1,584 @@
+package Core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Search-based strategy for discards and claims: for each promising move it samples the hidden
+ * tiles (opponent hands and the wall) from everything this player cannot see, plays the hand out
+ * with a fast policy, and picks the move with the best average outcome.
+ *
+ * A sampled deal respects what is on the table: every seat keeps its exposed melds, and an
+ * opponent with melds is dealt three hidden tiles fewer per meld, so the wall is as long as the
+ * real one. A worker loads each deal it plays into its {@link GameState} once; every candidate is
+ * played out from a mark on it and undone again, so candidates share the deal without copying it.
+ *
+ * On another seat's discard the candidates are passing and whichever of Peng and Gang are
+ * allowed; a Peng or Gang exposes the meld and discards by the playout policy, unless another
+ * opponent wins on the tile first. Hu is worth its score, which needs no sampling, and is
+ * compared with the rollouts of the other answers.
+ *
+ * Rollouts run in parallel on a fork-join pool and stop when the per-move time budget runs
+ * out, so the thinking time is spent on real computation and more cores mean more samples.
+ * A claim is searched on the pool too, so the game can ask every seat at once; it must fit in
+ * the {@link ClaimArbiter} timeout, which passes for a seat that has not answered.
+ * Playouts score the points this player collects or pays, with the winning hand scored by
+ * {@link ScoreCalculator}: a self-draw collects from all three opponents, a win on a discard
+ * from the discarder, dealing in pays the winner and an opponent's self-draw costs one share.
+ * Wins between opponents score 0. Winning hands are scored through an {@link EvaluationCache},
+ * which can be shared by several strategies; playouts from one deal often end in the same hand,
+ * and {@link #getEvaluationCache()} reports how often.
+ *
+ * Playouts are deterministic once the deal is sampled, and candidates often transpose: discarding
+ * A and later B reaches the same position as B then A. With a {@link TranspositionTable}, each
+ * playout looks the position up whenever this player draws, keyed by {@link GameState#hash()}
+ * salted per sampled deal, and stops at the first known position; when it ends it stores its
+ * outcome for every position it looked up. The workers take whole deals from one shared
+ * counter and play every candidate of a deal, so each deal is sampled once and its candidates
+ * find each other's positions; deal n is shuffled and salted from the decision's seed and n
+ * alone, so the deals played do not depend on how many workers there are. The strategy's own
+ * table is cleared at the start of every decision, since no entry of an earlier decision can
+ * hit again.
+ */
+public class MonteCarloDiscardStrategy implements DiscardStrategy, ClaimStrategy {
+    private static final int OPPONENTS = 3;
+    private static final int MAX_CANDIDATES = 6;
+    private static final long MISS = Long.MIN_VALUE;
+    private static final int TABLE_SLOTS = 1 << 16;
+    private static final int CACHE_ENTRIES = 1 << 14;
+    private static final Claim[] CLAIMS = Claim.values();
+
+    private final long budgetNanos;
+    private final ForkJoinPool pool;
+    private final SplittableRandom random;
+    private final ShantenCalculator calculator = new ShantenCalculator();
+    private final TranspositionTable table;
+    private final boolean ownsTable;
+    private final EvaluationCache cache;
+
+    /**
+     * Creates a strategy that thinks for the given time on the common fork-join pool.
+     *
+     * @param budgetMillis time budget per decision, in milliseconds
+     */
+    public MonteCarloDiscardStrategy(long budgetMillis) {
+        this(budgetMillis, ForkJoinPool.commonPool(), new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a strategy with an explicit pool and seed, and a transposition table of its own.
+     *
+     * @param budgetMillis time budget per decision, in milliseconds
+     * @param pool         the pool to run rollouts on
+     * @param seed         seed for sampling hidden tiles
+     */
+    public MonteCarloDiscardStrategy(long budgetMillis, ForkJoinPool pool, long seed) {
+        this(budgetMillis, pool, seed, new TranspositionTable(TABLE_SLOTS), true, new EvaluationCache(CACHE_ENTRIES));
+    }
+
+    /**
+     * Creates a strategy with an explicit pool, seed and transposition table. The table is
+     * never cleared by the strategy, so it can be shared with other searches; entries of other
+     * decisions are salted differently and only take up slots.
+     *
+     * @param budgetMillis time budget per decision, in milliseconds
+     * @param pool         the pool to run rollouts on
+     * @param seed         seed for sampling hidden tiles
+     * @param table        the table the rollouts share, or null to play every rollout to the end
+     */
+    public MonteCarloDiscardStrategy(long budgetMillis, ForkJoinPool pool, long seed, TranspositionTable table) {
+        this(budgetMillis, pool, seed, table, new EvaluationCache(CACHE_ENTRIES));
+    }
+
+    /**
+     * Creates a strategy with an explicit pool, seed, transposition table and evaluation cache.
+     * Cached scores do not depend on the decision, so the cache is never cleared by the strategy.
+     *
+     * @param budgetMillis time budget per decision, in milliseconds
+     * @param pool         the pool to run rollouts on
+     * @param seed         seed for sampling hidden tiles
+     * @param table        the table the rollouts share, or null to play every rollout to the end
+     * @param cache        the cache winning hands are scored through
+     */
+    public MonteCarloDiscardStrategy(long budgetMillis, ForkJoinPool pool, long seed, TranspositionTable table,
+                                     EvaluationCache cache) {
+        this(budgetMillis, pool, seed, table, false, cache);
+    }
+
+    private MonteCarloDiscardStrategy(long budgetMillis, ForkJoinPool pool, long seed, TranspositionTable table,
+                                      boolean ownsTable, EvaluationCache cache) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.pool = pool;
+        this.random = new SplittableRandom(seed);
+        this.table = table;
+        this.ownsTable = ownsTable;
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the cache the playouts score winning hands through, e.g. for its hit rate.
+     */
+    public EvaluationCache getEvaluationCache() {
+        return cache;
+    }
+
+    @Override
+    public long getBudgetMillis() {
+        return budgetNanos / 1_000_000L;
+    }
+
+    @Override
+    public int chooseDiscard(Player player, byte[] visible) {
+        return chooseDiscard(player, visible, null);
+    }
+
+    @Override
+    public int chooseDiscard(Player player, byte[] visible, List<Player> seats) {
+        long deadline = System.nanoTime() + budgetNanos;
+        byte[] counts = new byte[Card.TYPES];
+        player.copyTileCounts(counts);
+        int fixedMelds = (14 - player.getHandCards().size()) / 3;
+
+        int[] candidates = selectCandidates(counts, fixedMelds, visible);
+        if (candidates.length == 1) {
+            return candidates[0];
+        }
+        Position position = new Position(player, visible, seats, -1, GameResult.NO_SEAT);
+        double[] means = search(position, candidates, deadline);
+        return candidates[best(means)];
+    }
+
+    @Override
+    public CompletableFuture<Claim> chooseClaim(Player player, int options, int tile, int fromSeat,
+                                                byte[] visible, List<Player> seats) {
+        long deadline = System.nanoTime() + budgetNanos;
+        // Everything the search reads is copied now; the rollouts then run on the pool.
+        Position position = new Position(player, visible, seats, tile, fromSeat);
+        int[] candidates = new int[3];
+        int n = 0;
+        candidates[n++] = Claim.PASS.ordinal();
+        if (Claim.PENG.isAllowed(options)) {
+            candidates[n++] = Claim.PENG.ordinal();
+        }
+        if (Claim.GANG.isAllowed(options)) {
+            candidates[n++] = Claim.GANG.ordinal();
+        }
+        int[] claims = Arrays.copyOf(candidates, n);
+        double hu = Claim.HU.isAllowed(options) ? position.huPoints() : Double.NEGATIVE_INFINITY;
+        List<RolloutTask> tasks = rolloutTasks(position, claims, deadline);
+        return CompletableFuture.supplyAsync(() -> {
+            double[] means = merge(pool.invoke(new ForkAll(tasks)), claims.length);
+            int best = best(means);
+            return means[best] >= hu ? CLAIMS[claims[best]] : Claim.HU;
+        }, pool);
+    }
+
+    private double[] search(Position position, int[] candidates, long deadline) {
+        return merge(pool.invoke(new ForkAll(rolloutTasks(position, candidates, deadline))), candidates.length);
+    }
+
+    private List<RolloutTask> rolloutTasks(Position position, int[] candidates, long deadline) {
+        if (ownsTable) {
+            table.clear();
+        }
+        // One counter and one seed per decision, shared by every task.
+        AtomicInteger deals = new AtomicInteger();
+        long dealSeed = random.nextLong();
+        List<RolloutTask> tasks = new ArrayList<>();
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            tasks.add(new RolloutTask(position, candidates, deals, dealSeed, deadline, table, cache));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the mean outcome of each candidate over all tasks; -infinity for one never played.
+     */
+    private static double[] merge(List<RolloutTask> tasks, int candidates) {
+        double[] totals = new double[candidates];
+        long[] visits = new long[candidates];
+        for (RolloutTask task : tasks) {
+            for (int c = 0; c < candidates; c++) {
+                totals[c] += task.totals[c];
+                visits[c] += task.visits[c];
+            }
+        }
+        double[] means = new double[candidates];
+        for (int c = 0; c < candidates; c++) {
+            means[c] = visits[c] == 0 ? Double.NEGATIVE_INFINITY : totals[c] / visits[c];
+        }
+        return means;
+    }
+
+    private static int best(double[] means) {
+        int best = 0;
+        for (int c = 1; c < means.length; c++) {
+            if (means[c] > means[best]) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Keeps the discards that leave the lowest shanten, most live useful tiles first,
+     * so the search budget is spent on moves that are worth comparing.
+     */
+    private int[] selectCandidates(byte[] counts, int fixedMelds, byte[] visible) {
+        int[] tiles = new int[Card.TYPES];
+        int[] live = new int[Card.TYPES];
+        int n = 0;
+        int bestShanten = Integer.MAX_VALUE;
+        for (int t = 0; t < Card.TYPES; t++) {
+            if (counts[t] == 0) {
+                continue;
+            }
+            counts[t]--;
+            int shanten = calculator.shanten(counts, fixedMelds);
+            if (shanten <= bestShanten) {
+                if (shanten < bestShanten) {
+                    bestShanten = shanten;
+                    n = 0;
+                }
+                int mask = calculator.usefulTiles(counts, fixedMelds, shanten);
+                tiles[n] = t;
+                live[n] = ShantenCalculator.liveCount(counts, visible, mask);
+                n++;
+            }
+            counts[t]++;
+        }
+        // Insertion sort by live count, descending; n is at most 14.
+        for (int i = 1; i < n; i++) {
+            int tile = tiles[i];
+            int l = live[i];
+            int j = i - 1;
+            while (j >= 0 && live[j] < l) {
+                tiles[j + 1] = tiles[j];
+                live[j + 1] = live[j];
+                j--;
+            }
+            tiles[j + 1] = tile;
+            live[j + 1] = l;
+        }
+        int[] result = new int[Math.min(n, MAX_CANDIDATES)];
+        System.arraycopy(tiles, 0, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * What this player knows when deciding, in seats relative to it: seat 0 is this player and
+     * seats 1-3 the opponents in turn order. Read-only once built, so every task shares it.
+     */
+    private static final class Position {
+        final byte[] hand = new byte[Card.TYPES];
+        final byte[] unseen = new byte[Card.TYPES];
+        final Meld[][] melds = new Meld[OPPONENTS + 1][];
+        final int[] hidden = new int[OPPONENTS + 1]; // concealed tiles per seat
+        final int claimTile;                         // the discard being answered, or -1
+        final int discarder;                         // the seat that discarded it
+
+        Position(Player player, byte[] visible, List<Player> seats, int claimTile, int fromSeat) {
+            player.copyTileCounts(hand);
+            // Everything not in this hand and not on the table could be anywhere.
+            for (int t = 0; t < Card.TYPES; t++) {
+                unseen[t] = (byte) Math.max(0, 4 - hand[t] - (visible != null ? visible[t] : 0));
+            }
+            // Relative seats are counted from the player's index at the table it was given.
+            int self = seats != null ? seats.indexOf(player) : Math.max(player.getSeat(), 0);
+            if (self < 0) {
+                throw new IllegalArgumentException(player.getName() + " is not at the given table");
+            }
+            boolean known = seats != null && seats.size() == OPPONENTS + 1;
+            for (int seat = 0; seat <= OPPONENTS; seat++) {
+                List<Meld> exposed = seat == 0 ? player.getMelds()
+                        : known ? seats.get((self + seat) % seats.size()).getMelds() : List.of();
+                melds[seat] = new Meld[exposed.size()];
+                for (int i = 0; i < exposed.size(); i++) {
+                    Meld m = exposed.get(i);
+                    int from = (m.getFromSeat() - self + OPPONENTS + 1) % (OPPONENTS + 1);
+                    melds[seat][i] = new Meld(m.getKind(), m.getCard(), from);
+                }
+                hidden[seat] = 13 - 3 * exposed.size();
+            }
+            this.claimTile = claimTile;
+            this.discarder = claimTile < 0 ? 0 : (fromSeat - self + OPPONENTS + 1) % (OPPONENTS + 1);
+        }
+
+        /**
+         * Returns the points for winning on the claimed discard now.
+         */
+        int huPoints() {
+            int wall = -OPPONENTS * 13;
+            for (int t = 0; t < Card.TYPES; t++) {
+                wall += unseen[t];
+            }
+            for (int seat = 1; seat <= OPPONENTS; seat++) {
+                wall += 3 * melds[seat].length;
+            }
+            int situation = wall <= 0 ? ScoreCalculator.LAST_TILE : 0;
+            return ScoreCalculator.points(ScoreCalculator.evaluate(hand, 0, claimTile,
+                    ScoreCalculator.summarizeMelds(Arrays.asList(melds[0])), situation));
+        }
+    }
+
+    /**
+     * Runs all rollout tasks and returns them once every one has hit the deadline.
+     */
+    private static class ForkAll extends RecursiveTask<List<RolloutTask>> {
+        private final List<RolloutTask> tasks;
+
+        ForkAll(List<RolloutTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected List<RolloutTask> compute() {
+            invokeAll(tasks);
+            return tasks;
+        }
+    }
+
+    /**
+     * One worker's rollouts. Each worker has its own arrays and takes deals from the shared
+     * counter until the deadline, so results are merged only at the end.
+     * Candidates are tile ids for a discard, or Claim ordinals when answering a discard.
+     */
+    private static class RolloutTask extends RecursiveTask<Void> {
+        private final Position position;
+        private final int[] candidates;
+        private final AtomicInteger deals;
+        private final long dealSeed;
+        private final long deadline;
+        private final TranspositionTable table;
+        private final EvaluationCache cache;
+        final double[] totals;
+        final long[] visits;
+
+        // Scratch state for one playout, in the position's relative seats.
+        private final byte[][] hands = new byte[OPPONENTS + 1][Card.TYPES];
+        private final byte[] wall = new byte[Deck.SIZE];
+        private final GameState state = new GameState(OPPONENTS + 1);
+        // The deal's mark and salt, and the positions the current playout looked up.
+        private int mark;
+        private long salt;
+        private final long[] path = new long[Deck.SIZE];
+        private int pathSize;
+
+        RolloutTask(Position position, int[] candidates, AtomicInteger deals, long dealSeed, long deadline,
+                    TranspositionTable table, EvaluationCache cache) {
+            this.position = position;
+            this.candidates = candidates;
+            this.deals = deals;
+            this.dealSeed = dealSeed;
+            this.deadline = deadline;
+            this.table = table;
+            this.cache = cache;
+            this.totals = new double[candidates.length];
+            this.visits = new long[candidates.length];
+            hands[0] = position.hand.clone();
+        }
+
+        @Override
+        protected Void compute() {
+            while (true) {
+                // Every candidate plays out against the same sampled deal, so the
+                // comparison between them is not swamped by deal-to-deal noise. The deadline
+                // is checked between deals, and the first deal is played even on a tiny budget.
+                int n = deals.getAndIncrement();
+                if (n > 0 && System.nanoTime() >= deadline) {
+                    return null;
+                }
+                sampleDeal(n);
+                for (int c = 0; c < candidates.length; c++) {
+                    totals[c] += rollout(candidates[c]);
+                    visits[c]++;
+                    state.restore(mark);
+                }
+            }
+        }
+
+        /**
+         * Shuffles the unseen tiles, deals each opponent as many as it holds hidden and loads
+         * the deal, with the rest as the wall and every seat's melds, into the state. When
+         * answering a discard, the discarder is given the tile and discards it. The shuffle and
+         * the salt depend only on the decision's seed and n.
+         * Sets the deal's mark, the state before the move being decided.
+         */
+        private void sampleDeal(int n) {
+            salt = Zobrist.mix(dealSeed + n);
+            SplittableRandom random = new SplittableRandom(salt);
+            int wallSize = 0;
+            for (int t = 0; t < Card.TYPES; t++) {
+                for (int k = 0; k < position.unseen[t]; k++) {
+                    wall[wallSize++] = (byte) t;
+                }
+            }
+            for (int i = wallSize - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                byte tmp = wall[i];
+                wall[i] = wall[j];
+                wall[j] = tmp;
+            }
+            int next = 0;
+            for (int seat = 1; seat <= OPPONENTS; seat++) {
+                byte[] h = hands[seat];
+                Arrays.fill(h, (byte) 0);
+                for (int k = 0; k < position.hidden[seat] && next < wallSize; k++) {
+                    h[wall[next++]]++;
+                }
+            }
+            int claimTile = position.claimTile;
+            if (claimTile >= 0) {
+                hands[position.discarder][claimTile]++;
+            }
+            state.setUp(hands, wall, next, wallSize - next, position.discarder);
+            for (int seat = 0; seat <= OPPONENTS; seat++) {
+                for (Meld meld : position.melds[seat]) {
+                    state.addMeld(seat, meld);
+                }
+            }
+            if (claimTile >= 0) {
+                hands[position.discarder][claimTile]--;
+                state.discard(claimTile);
+            }
+            mark = state.mark();
+        }
+
+        /**
+         * Plays the candidate and then the sampled deal out, then records the outcome for
+         * every position the playout looked up.
+         * @return the outcome for this player
+         */
+        private double rollout(int candidate) {
+            pathSize = 0;
+            int outcome;
+            if (position.claimTile < 0) {
+                state.discard(candidate);
+                outcome = playOut(candidate, GameResult.NO_SEAT);
+            } else if (candidate == Claim.PASS.ordinal()) {
+                outcome = playOut(position.claimTile, 0);
+            } else {
+                outcome = claim(candidate == Claim.GANG.ordinal());
+            }
+            if (table != null) {
+                for (int i = 0; i < pathSize; i++) {
+                    table.put(path[i], outcome);
+                }
+            }
+            return outcome;
+        }
+
+        /**
+         * Takes the discard by Peng or Gang and plays on, unless an opponent wins on it first.
+         */
+        private int claim(boolean gang) {
+            int tile = position.claimTile;
+            for (int i = 1; i <= OPPONENTS; i++) {
+                int other = (position.discarder + i) % (OPPONENTS + 1);
+                if (other != 0 && state.winsWith(other, tile)) {
+                    return 0;
+                }
+            }
+            state.claim(0, gang);
+            if (gang) {
+                if (state.drawLast() < 0) {
+                    return 0;
+                }
+                if (state.isHu(0)) {
+                    int situation = ScoreCalculator.SELF_DRAWN | ScoreCalculator.AFTER_GANG
+                            | (state.getRemaining() == 0 ? ScoreCalculator.LAST_TILE : 0);
+                    return OPPONENTS * ScoreCalculator.points(state.score(0, -1, situation, cache));
+                }
+            }
+            int discard = playoutDiscard(state, 0);
+            state.discard(discard);
+            return playOut(discard, GameResult.NO_SEAT);
+        }
+
+        /**
+         * Plays the sampled deal out from the discard just made by the seat to act.
+         * @param skip a seat that passed on this discard, or GameResult.NO_SEAT
+         */
+        private int playOut(int discard, int skip) {
+            int tile = discard;
+            while (true) {
+                int seat = state.getTurn();
+                // Other seats may win on the discard, in turn order.
+                for (int i = 1; i <= OPPONENTS; i++) {
+                    int other = (seat + i) % (OPPONENTS + 1);
+                    if (other != skip && state.winsWith(other, tile)) {
+                        if (other != 0 && seat != 0) {
+                            return 0;
+                        }
+                        int situation = state.getRemaining() == 0 ? ScoreCalculator.LAST_TILE : 0;
+                        int points = ScoreCalculator.points(state.score(other, tile, situation, cache));
+                        return other == 0 ? points : -points;
+                    }
+                }
+                skip = GameResult.NO_SEAT;
+                state.nextTurn();
+                if (state.draw() < 0) {
+                    return 0;
+                }
+                seat = state.getTurn();
+                if (seat == 0 && table != null) {
+                    long key = state.hash() ^ salt;
+                    long known = table.get(key, MISS);
+                    if (known != MISS) {
+                        return (int) known;
+                    }
+                    path[pathSize++] = key;
+                }
+                if (state.isHu(seat)) {
+                    int situation = ScoreCalculator.SELF_DRAWN
+                            | (state.getRemaining() == 0 ? ScoreCalculator.LAST_TILE : 0);
+                    int points = ScoreCalculator.points(state.score(seat, -1, situation, cache));
+                    return seat == 0 ? OPPONENTS * points : -points;
+                }
+                tile = playoutDiscard(state, seat);
+                state.discard(tile);
+            }
+        }
+
+        /**
+         * Fast playout policy: discard the tile with the fewest connections to the rest of the hand.
+         */
+        private static int playoutDiscard(GameState state, int seat) {
+            int best = -1;
+            int bestScore = Integer.MAX_VALUE;
+            for (int t = 0; t < Card.TYPES; t++) {
+                int count = state.countOf(seat, t);
+                if (count == 0) {
+                    continue;
+                }
+                int n = t % 9;
+                int score = (count - 1) * 4;
+                if (n > 0) {
+                    score += state.countOf(seat, t - 1) * 2;
+                }
+                if (n < 8) {
+                    score += state.countOf(seat, t + 1) * 2;
+                }
+                if (n > 1) {
+                    score += state.countOf(seat, t - 2);
+                }
+                if (n < 7) {
+                    score += state.countOf(seat, t + 2);
+                }
+                // Middle tiles connect in more ways than terminals.
+                score += (n == 0 || n == 8) ? 0 : 1;
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = t;
+                }
+            }
+            return best;
+        }
+    }
+}
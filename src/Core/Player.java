@@ -1,30 +1,62 @@
 package Core;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
 
 public abstract class Player {
     protected String name;
     protected List<Card> handCards;
     protected boolean isHuman;
+    protected int seat = GameResult.NO_SEAT;
+    protected GameEventLog eventLog = GameEventLog.DISABLED; // receives draws, discards etc.
+
+    // Per-tile counts kept alongside handCards, so count queries never scan the hand.
+    private final byte[] tileCounts;
+    private int fourOfAKindCount;
+    // The hand in display order, with a null hole for every tile removed since the last
+    // compaction: a discard clears its slot instead of shifting the tiles after it, and the
+    // holes are squeezed out when the full array is needed or the hand is next read in order.
+    private final Card[] slots = new Card[32];
+    private int slotCount; // slots in use, holes included
+    private int handSize;
+    // Slot of each copy of each tile (tile * 4 + copy), in increasing order, so the last copy is found directly.
+    private final byte[] copySlots = new byte[Card.TYPES * Card.COPIES];
+    private final byte[] compactCopies = new byte[Card.TYPES];
+    // Winning tiles (see getWaits), kept per suit: a change to the hand only marks its suit dirty.
+    private final int[] suitKeys = new int[3];
+    private final int[] suitWaits = new int[3];
+    private int dirtySuits = 7;
+    private int oddTiles; // tiles held an odd number of times, for seven pairs
+    // Zobrist hashes (see getZobristHash) of the concealed tiles and of the melds.
+    private long concealedHash;
+    private long meldHash;
+    private final List<Meld> melds = new ArrayList<>(4);
+    private final List<Meld> meldView = Collections.unmodifiableList(melds);
 
     public Player(String name, boolean isHuman) {
         this.name = name;
         this.isHuman = isHuman;
-        this.handCards = new ArrayList<>();
+        this.tileCounts = new byte[Card.TYPES];
+        this.handCards = new HandList();
     }
 
     /**
      * Draw a card from the given deck.
-     * If a card is drawn, add it to the hand and print a message.
+     * If a card is drawn, add it to the hand and log a draw event.
      */
     public void drawCard(Deck deck) {
         Card card = deck.drawCard();
         if (card != null) {
-            handCards.add(card);
-            System.out.println(name + " draws card: " + card);
+            addToHand(card);
+            eventLog.publish(GameEvent.Type.DRAW, seat, card.getId(), 0);
         } else {
-            System.out.println("Deck is empty. " + name + " cannot draw a card.");
+            eventLog.publish(GameEvent.Type.WALL_EMPTY, seat, -1, 0);
         }
     }
 
@@ -33,30 +65,225 @@ public abstract class Player {
      */
     public void drawCard(Card card) {
         if (card != null) {
-            handCards.add(card);
-            System.out.println(name + " draws card: " + card);
+            addToHand(card);
+            eventLog.publish(GameEvent.Type.DRAW, seat, card.getId(), 0);
+        }
+    }
+
+    /**
+     * Add a block of dealt tiles to the player's hand.
+     * @param ids   tile ids to take from
+     * @param from  index of the first tile
+     * @param count number of tiles
+     */
+    public void dealTiles(byte[] ids, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            addToHand(Card.of(ids[i]));
         }
+        eventLog.publish(GameEvent.Type.DEAL, seat, -1, count);
     }
 
     /**
      * Discard the specified card from the player's hand.
      */
     public void discardCard(Card card) {
-        if (handCards.contains(card)) {
-            handCards.remove(card);
-            System.out.println(name + " discards card: " + card);
+        if (card != null && tileCounts[card.getId()] > 0) {
+            removeFromHand(card);
+            eventLog.publish(GameEvent.Type.DISCARD, seat, card.getId(), 0);
         } else {
-            System.out.println("Card " + card + " not found in " + name + "'s hand.");
+            eventLog.publish(GameEvent.Type.INVALID_DISCARD, seat, card != null ? card.getId() : -1, 0);
         }
     }
 
     /**
-     * Return the player's current hand.
+     * Replaces the hand with the given tile counts, in tile-id order (e.g. when restoring a GameState).
+     * @param counts 27 tile counts
+     */
+    public void setHandCounts(byte[] counts) {
+        clearConcealed();
+        for (int t = 0; t < Card.TYPES; t++) {
+            for (int k = 0; k < counts[t]; k++) {
+                addToHand(Card.of(t));
+            }
+        }
+    }
+
+    /**
+     * Exposes a claimed discard as a meld: the matching tiles (two for Peng, three for Gang)
+     * leave the concealed hand. The claimed tile itself never enters the hand.
+     */
+    public void claim(Meld meld) {
+        Card card = meld.getCard();
+        for (int i = 1; i < meld.size(); i++) {
+            removeFromHand(card);
+        }
+        melds.add(meld);
+        meldHash += Zobrist.meld(card.getId(), meld.getKind() == Claim.GANG);
+        GameEvent.Type type = meld.getKind() == Claim.GANG ? GameEvent.Type.GANG : GameEvent.Type.PENG;
+        eventLog.publish(type, seat, card.getId(), meld.getFromSeat());
+    }
+
+    // Used by Game.restore; the concealed tiles are set separately.
+    void setMelds(List<Meld> restored) {
+        melds.clear();
+        melds.addAll(restored);
+        meldHash = 0;
+        for (Meld meld : restored) {
+            meldHash += Zobrist.meld(meld.getCard().getId(), meld.getKind() == Claim.GANG);
+        }
+    }
+
+    /**
+     * Returns the player's exposed melds, in the order they were claimed (read-only).
+     */
+    public List<Meld> getMelds() {
+        return meldView;
+    }
+
+    public int getMeldCount() {
+        return melds.size();
+    }
+
+    /**
+     * Answers another seat's discard. The game asks only seats that have at least one option,
+     * and waits for every answer (or the claim timeout) before the turn moves on.
+     *
+     * The default takes a Hu and passes otherwise. Subclasses may answer later, e.g. once a user
+     * has clicked, by returning a future that is not complete yet.
+     *
+     * @param options  the allowed claims, as a mask of {@link Claim#bit()} values
+     * @param card     the discarded tile
+     * @param fromSeat the seat that discarded it
+     * @return a future for the chosen claim; a claim outside the options counts as PASS
+     */
+    public CompletableFuture<Claim> requestClaim(int options, Card card, int fromSeat) {
+        return CompletableFuture.completedFuture(Claim.HU.isAllowed(options) ? Claim.HU : Claim.PASS);
+    }
+
+    private void addToHand(Card card) {
+        int id = card.getId();
+        if (slotCount == slots.length) {
+            compact();
+        }
+        copySlots[id * Card.COPIES + tileCounts[id]] = (byte) slotCount;
+        slots[slotCount++] = card;
+        handSize++;
+        if (++tileCounts[id] == 4) {
+            fourOfAKindCount++;
+        }
+        suitKeys[id / 9] += HuEngine.POW5[id % 9];
+        dirtySuits |= 1 << id / 9;
+        oddTiles ^= 1 << id;
+        concealedHash += Zobrist.tile(id);
+    }
+
+    private void removeFromHand(Card card) {
+        int id = card.getId();
+        // Cards are shared per tile type, so removing the last copy keeps the earlier order intact.
+        slots[copySlots[id * Card.COPIES + tileCounts[id] - 1]] = null;
+        handSize--;
+        while (slotCount > 0 && slots[slotCount - 1] == null) {
+            slotCount--;
+        }
+        if (tileCounts[id]-- == 4) {
+            fourOfAKindCount--;
+        }
+        suitKeys[id / 9] -= HuEngine.POW5[id % 9];
+        dirtySuits |= 1 << id / 9;
+        oddTiles ^= 1 << id;
+        concealedHash -= Zobrist.tile(id);
+    }
+
+    // Squeezes the holes out of slots and renumbers the copies, in O(slotCount).
+    private void compact() {
+        Arrays.fill(compactCopies, (byte) 0);
+        int n = 0;
+        for (int i = 0; i < slotCount; i++) {
+            Card card = slots[i];
+            if (card != null) {
+                int id = card.getId();
+                copySlots[id * Card.COPIES + compactCopies[id]++] = (byte) n;
+                slots[n++] = card;
+            }
+        }
+        Arrays.fill(slots, n, slotCount, null);
+        slotCount = n;
+    }
+
+    /**
+     * Returns the tiles that would complete the hand, as a 27-bit mask indexed by tile id: bit t
+     * is set if RuleChecker.validateHu(this, Card.of(t)) holds. The mask is 0 unless the hand
+     * is one tile short of a win (13 tiles, counting three for each meld).
+     *
+     * Draws, discards and claims only mark the suit they touch; the next call re-evaluates
+     * those suits (nine table lookups each) and combines the three with a few bit operations,
+     * so whether a discard lets anyone win is an AND of this mask with the tile's bit.
+     */
+    public int getWaits() {
+        if (handSize + 3 * melds.size() != 13) {
+            return 0;
+        }
+        for (int dirty = dirtySuits; dirty != 0; dirty &= dirty - 1) {
+            int s = Integer.numberOfTrailingZeros(dirty);
+            suitWaits[s] = HuEngine.suitWaits(suitKeys[s]);
+        }
+        dirtySuits = 0;
+        int waits = HuEngine.waits(suitKeys[0], suitKeys[1], suitKeys[2], suitWaits[0], suitWaits[1], suitWaits[2]);
+        if (melds.isEmpty() && Integer.bitCount(oddTiles) == 1) {
+            // Six pairs and a single (or a three): the single's mate makes seven pairs.
+            waits |= oddTiles;
+        }
+        return waits;
+    }
+
+    /**
+     * Returns a hash of the hand: its concealed tiles, whatever their display order, and its
+     * exposed melds. It is kept up to date by every draw, discard and claim in O(1), and does
+     * not depend on the seat; {@link Game#getStateHash()} combines it with the rest of the table.
+     */
+    public long getZobristHash() {
+        return concealedHash + meldHash;
+    }
+
+    /**
+     * Return the player's current hand, in display order.
+     * The list is a read-only view; use drawCard and discardCard to change the hand.
      */
     public List<Card> getHandCards() {
         return handCards;
     }
 
+    /**
+     * Return how many copies of the given tile type are in the hand.
+     */
+    public int countOf(int tileId) {
+        return tileCounts[tileId];
+    }
+
+    /**
+     * Return the per-tile counts of the hand, indexed by tile id.
+     * The array is live and must not be modified by the caller.
+     */
+    public byte[] getTileCounts() {
+        return tileCounts;
+    }
+
+    /**
+     * Copies the per-tile counts of the hand into dest, e.g. for a strategy that tries
+     * removing tiles from it.
+     * @param dest an array of at least 27 entries
+     */
+    public void copyTileCounts(byte[] dest) {
+        System.arraycopy(tileCounts, 0, dest, 0, Card.TYPES);
+    }
+
+    /**
+     * Returns true if the hand holds all four copies of any tile type.
+     */
+    public boolean hasFourOfAKind() {
+        return fourOfAKindCount > 0;
+    }
+
     /**
      * Return the player's name.
      */
@@ -64,6 +291,31 @@ public abstract class Player {
         return name;
     }
 
+    /**
+     * Choose which card to discard from the current hand, without discarding it.
+     * The default picks the rightmost card; subclasses may override this.
+     * @return the card to discard, or null if the hand is empty.
+     */
+    public Card chooseDiscard() {
+        return handSize == 0 ? null : handCards.get(handSize - 1);
+    }
+
+    /**
+     * Seats the player at a logged game: draws, discards and other actions are published
+     * to the log under the given seat. Players that are never attached log nothing.
+     */
+    public void attachEventLog(GameEventLog eventLog, int seat) {
+        this.eventLog = eventLog;
+        this.seat = seat;
+    }
+
+    /**
+     * Returns the player's seat at the logged game, or GameResult.NO_SEAT.
+     */
+    public int getSeat() {
+        return seat;
+    }
+
     /**
      * Returns true if this is a human player.
      */
@@ -75,7 +327,21 @@ public abstract class Player {
      * Clear the player's hand (useful for game reset).
      */
     public void clearHand() {
-        handCards.clear();
+        clearConcealed();
+        melds.clear();
+        meldHash = 0;
+    }
+
+    private void clearConcealed() {
+        Arrays.fill(slots, 0, slotCount, null);
+        slotCount = 0;
+        handSize = 0;
+        Arrays.fill(tileCounts, (byte) 0);
+        fourOfAKindCount = 0;
+        Arrays.fill(suitKeys, 0);
+        dirtySuits = 7;
+        oddTiles = 0;
+        concealedHash = 0;
     }
 
     /**
@@ -86,6 +352,9 @@ public abstract class Player {
         for (Card c : handCards) {
             sb.append(c.toString()).append(" ");
         }
+        for (Meld m : melds) {
+            sb.append(m).append(" ");
+        }
         return sb.toString().trim();
     }
 
@@ -94,6 +363,26 @@ public abstract class Player {
         return name + "'s hand: " + handToString();
     }
 
+    /**
+     * The read-only display-order view of the hand behind handCards. Its size is kept by every
+     * draw and discard; reading a tile first squeezes out any holes left by discards.
+     */
+    private final class HandList extends AbstractList<Card> implements RandomAccess {
+        @Override
+        public Card get(int index) {
+            Objects.checkIndex(index, handSize);
+            if (slotCount != handSize) {
+                compact();
+            }
+            return slots[index];
+        }
+
+        @Override
+        public int size() {
+            return handSize;
+        }
+    }
+
     /**
      * Abstract method for executing a player's turn.
      * Subclasses (HumanPlayer and AIPlayer) must implement this.
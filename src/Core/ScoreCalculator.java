@@ -0,0 +1,253 @@
+package Core;
+
+import java.util.List;
+
+/**
+ * Scores winning hands by the Sichuan patterns in {@link Fan}.
+ *
+ * Patterns are read from the per-suit table that the Hu check already uses: the three suit keys
+ * of the hand give each suit's shape bits (all triplets, a terminal in every set, only 2/5/8,
+ * triplets of 1 and 9) and whether it is all pairs. Where a suit splits more than one way, the
+ * hand scores its best split: Dui Dui Hu and Dai Yao Jiu only together when a single split has
+ * both. Exposed melds are folded into one long
+ * summary up front (see {@link #addMeld}), and the fan of every combination of patterns is looked
+ * up in a table, so {@link #evaluate} is a handful of array reads and allocates nothing; it is
+ * cheap enough to run at the end of every simulation rollout.
+ *
+ * A hand scores {@code 2^fan} points, with fan capped at {@link #MAX_FAN}. A discarder pays the
+ * winner; on a self-drawn win every other seat pays.
+ */
+public final class ScoreCalculator {
+    /** Fan above this many still score this many. */
+    public static final int MAX_FAN = 5;
+
+    /** Situation flag: the winner drew the winning tile. */
+    public static final int SELF_DRAWN = 1;
+    /** Situation flag: the winning tile came right after a Gang (its replacement, or the ganger's discard). */
+    public static final int AFTER_GANG = 2;
+    /** Situation flag: the winning tile was the last of the wall, or the discard after it. */
+    public static final int LAST_TILE = 4;
+
+    /** Meld summary of a hand without exposed melds. */
+    public static final long NO_MELDS = (long) HuEngine.SHAPES << 36;
+
+    /** Result of {@link #evaluate} for a hand that does not win. */
+    public static final int NOT_A_WIN = -1;
+
+    // Meld summary layout: bits 0-26 tiles held as Peng, 27-29 suits, 30-32 Gangs, 33-35 melds, 36-41 shape bits.
+    private static final long PENG_TILES = (1L << Card.TYPES) - 1;
+
+    private static final int SHAPE_PATTERNS = Fan.PING_HU.bit() | Fan.DUI_DUI_HU.bit() | Fan.JIANG_DUI.bit()
+            | Fan.QING_YI_SE.bit() | Fan.QI_DUI.bit() | Fan.LONG_QI_DUI.bit() | Fan.DAI_YAO_JIU.bit();
+
+    private static final byte[] PATTERN_FAN = buildFanTable();
+
+    private ScoreCalculator() {
+    }
+
+    /**
+     * Adds an exposed meld to a meld summary.
+     *
+     * @param melds the summary so far, starting from {@link #NO_MELDS}
+     * @param tile  the meld's tile id
+     * @param gang  true for a Gang, false for a Peng
+     */
+    public static long addMeld(long melds, int tile, boolean gang) {
+        int shape = HuEngine.tripletShape(tile % 9);
+        long summary = melds & ~(0x3FL << 36) | (melds >>> 36 & shape) << 36;
+        summary |= 1L << (27 + tile / 9);
+        summary += 1L << 33;
+        if (gang) {
+            summary += 1L << 30;
+        } else {
+            summary |= 1L << tile;
+        }
+        return summary;
+    }
+
+    /**
+     * Returns the summary of a player's exposed melds.
+     */
+    public static long summarizeMelds(List<Meld> melds) {
+        long summary = NO_MELDS;
+        for (int i = 0; i < melds.size(); i++) {
+            Meld m = melds.get(i);
+            summary = addMeld(summary, m.getCard().getId(), m.getKind() == Claim.GANG);
+        }
+        return summary;
+    }
+
+    /**
+     * Scores a hand.
+     *
+     * @param counts    tile counts of the concealed hand
+     * @param offset    index of the hand's first count in counts (e.g. seat * 27 in a GameState)
+     * @param extraTile a winning tile not yet in counts (another seat's discard), or -1
+     * @param melds     the exposed melds, from {@link #summarizeMelds} or {@link #NO_MELDS}
+     * @param situation SELF_DRAWN, AFTER_GANG and LAST_TILE flags
+     * @return the packed result (read it with {@link #patterns}, {@link #gens}, {@link #fan} and
+     *         {@link #points}), or NOT_A_WIN if the tiles do not form a winning hand
+     */
+    public static int evaluate(byte[] counts, int offset, int extraTile, long melds, int situation) {
+        int k0 = HuEngine.suitKey(counts, offset);
+        int k1 = HuEngine.suitKey(counts, offset + 9);
+        int k2 = HuEngine.suitKey(counts, offset + 18);
+        if (extraTile >= 0) {
+            if (counts[offset + extraTile] == 4) {
+                return NOT_A_WIN;
+            }
+            int weight = HuEngine.POW5[extraTile % 9];
+            if (extraTile < 9) {
+                k0 += weight;
+            } else if (extraTile < 18) {
+                k1 += weight;
+            } else {
+                k2 += weight;
+            }
+        }
+        int f0 = HuEngine.suitFlag(k0);
+        int f1 = HuEngine.suitFlag(k1);
+        int f2 = HuEngine.suitFlag(k2);
+        int meldCount = (int) (melds >>> 33 & 7);
+        boolean standard = HuEngine.isHu(k0, k1, k2);
+        boolean sevenPairs = meldCount == 0 && (f0 & f1 & f2 & HuEngine.PAIRS) != 0;
+        if (!standard && !sevenPairs) {
+            return NOT_A_WIN;
+        }
+
+        int gens = (int) (melds >>> 30 & 7);
+        for (int t = 0; t < Card.TYPES; t++) {
+            if (counts[offset + t] + (t == extraTile ? 1 : 0) == 4) {
+                gens++;
+            }
+        }
+        // A Peng whose fourth tile is still in the hand is a gen too.
+        for (long pengs = melds & PENG_TILES; pengs != 0; pengs &= pengs - 1) {
+            int tile = Long.numberOfTrailingZeros(pengs);
+            if (counts[offset + tile] > 0 || tile == extraTile) {
+                gens++;
+            }
+        }
+
+        int common = 0;
+        int suits = (k0 != 0 ? 1 : 0) | (k1 != 0 ? 2 : 0) | (k2 != 0 ? 4 : 0) | (int) (melds >>> 27 & 7);
+        if (Integer.bitCount(suits) == 1) {
+            common |= Fan.QING_YI_SE.bit();
+        }
+        boolean selfDrawn = (situation & SELF_DRAWN) != 0;
+        if (selfDrawn) {
+            common |= Fan.ZI_MO.bit();
+        }
+        if ((situation & AFTER_GANG) != 0) {
+            common |= selfDrawn ? Fan.GANG_SHANG_HUA.bit() : Fan.GANG_SHANG_PAO.bit();
+        }
+        if ((situation & LAST_TILE) != 0) {
+            common |= selfDrawn ? Fan.HAI_DI_LAO_YUE.bit() : Fan.HAI_DI_PAO.bit();
+        }
+
+        int best = NOT_A_WIN;
+        if (standard) {
+            int shape = f0 & f1 & f2 & (int) (melds >>> 36);
+            int patterns = common;
+            // Each shape bit may come from a different split, so take the best single split's patterns.
+            if ((shape & HuEngine.TERMINAL_TRIPLETS) != 0) {
+                patterns |= Fan.DUI_DUI_HU.bit() | Fan.DAI_YAO_JIU.bit();
+            } else if ((shape & HuEngine.TWO_FIVE_EIGHT) != 0) {
+                patterns |= Fan.DUI_DUI_HU.bit() | Fan.JIANG_DUI.bit();
+            } else if ((shape & HuEngine.TERMINALS) != 0) {
+                patterns |= Fan.DAI_YAO_JIU.bit();
+            } else if ((shape & HuEngine.TRIPLETS) != 0) {
+                patterns |= Fan.DUI_DUI_HU.bit();
+            }
+            if (meldCount == 4) {
+                patterns |= Fan.JIN_GOU_DIAO.bit();
+            }
+            if ((patterns & SHAPE_PATTERNS) == 0) {
+                patterns |= Fan.PING_HU.bit();
+            }
+            best = pack(patterns, gens);
+        }
+        if (sevenPairs) {
+            int result = gens > 0
+                    ? pack(common | Fan.LONG_QI_DUI.bit(), gens - 1)
+                    : pack(common | Fan.QI_DUI.bit(), gens);
+            if (best == NOT_A_WIN || fan(result) > fan(best)) {
+                best = result;
+            }
+        }
+        return best;
+    }
+
+    private static int pack(int patterns, int gens) {
+        return PATTERN_FAN[patterns] + gens << 24 | gens << 16 | patterns;
+    }
+
+    /**
+     * Returns the pattern mask of a result, as {@link Fan#bit()} values.
+     */
+    public static int patterns(int result) {
+        return result & 0xFFFF;
+    }
+
+    /**
+     * Returns the number of gens of a result.
+     */
+    public static int gens(int result) {
+        return result >>> 16 & 0xFF;
+    }
+
+    /**
+     * Returns the total fan of a result, before the cap.
+     */
+    public static int fan(int result) {
+        return result >>> 24;
+    }
+
+    /**
+     * Returns what each paying seat owes for a result.
+     */
+    public static int points(int result) {
+        return 1 << Math.min(fan(result), MAX_FAN);
+    }
+
+    /**
+     * Describes a result, e.g. "Qing Yi Se, Dui Dui Hu, Gen x1: 4 fan, 16 points".
+     */
+    public static String describe(int result) {
+        StringBuilder sb = new StringBuilder();
+        int mask = patterns(result);
+        for (int i = 0; mask >> i != 0; i++) {
+            if ((mask >> i & 1) != 0) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(Fan.of(i).getLabel());
+            }
+        }
+        if (gens(result) > 0) {
+            sb.append(", Gen x").append(gens(result));
+        }
+        return sb.append(": ").append(fan(result)).append(" fan, ").append(points(result)).append(" points").toString();
+    }
+
+    /**
+     * Scores a player's winning hand, with their melds.
+     *
+     * @param player    the winner
+     * @param extraTile the discard won on, or -1 if the winning tile is in the hand
+     * @param situation SELF_DRAWN, AFTER_GANG and LAST_TILE flags
+     * @return the packed result, or NOT_A_WIN
+     */
+    public static int evaluate(Player player, int extraTile, int situation) {
+        return evaluate(player.getTileCounts(), 0, extraTile, summarizeMelds(player.getMelds()), situation);
+    }
+
+    private static byte[] buildFanTable() {
+        byte[] table = new byte[1 << Fan.count()];
+        for (int mask = 1; mask < table.length; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            table[mask] = (byte) (table[mask & mask - 1] + Fan.of(low).getFan());
+        }
+        return table;
+    }
+}
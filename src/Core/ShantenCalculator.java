@@ -0,0 +1,336 @@
+package Core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Shanten (tiles-to-ready) and useful-tile counting over the 27 Sichuan tile types.
+ *
+ * Shanten is the number of tile swaps a hand needs before it is ready (one tile from Hu):
+ * 0 means ready, -1 means already complete. Both the standard shape (melds plus a pair) and
+ * seven pairs are covered; the result is the better of the two.
+ *
+ * Melds and partial melds never cross suits, so each suit is searched on its own for every
+ * reachable (melds, partial melds) combination, with and without a pair, and the three suits
+ * are then combined. Per-suit results are cached by suit key; when only one suit changes
+ * (a draw or a discard) the other two are cache hits.
+ *
+ * Methods modify the count vector during the call and restore it before returning.
+ * Instances are not thread-safe; use one per thread.
+ */
+public class ShantenCalculator {
+    private static final int CACHE_SIZE = 1 << 14;
+
+    // Direct-mapped cache of per-suit results: key + 1 (0 = empty) and the two combination masks.
+    private final int[] cachedKeys = new int[CACHE_SIZE];
+    private final long[] cachedMasks = new long[CACHE_SIZE];
+
+    private byte[] counts;
+    private int suitMask;
+
+    /**
+     * The outcome of discarding one tile type: the shanten left and the tiles that improve it.
+     */
+    public static final class DiscardOption {
+        private final int tile;
+        private final int shanten;
+        private final int usefulMask;
+        private final int liveCount;
+
+        DiscardOption(int tile, int shanten, int usefulMask, int liveCount) {
+            this.tile = tile;
+            this.shanten = shanten;
+            this.usefulMask = usefulMask;
+            this.liveCount = liveCount;
+        }
+
+        /** The tile id to discard. */
+        public int getTile() {
+            return tile;
+        }
+
+        /** Shanten of the hand after the discard. */
+        public int getShanten() {
+            return shanten;
+        }
+
+        /** Bit t is set if drawing tile id t would lower the shanten. */
+        public int getUsefulMask() {
+            return usefulMask;
+        }
+
+        /** Copies of the useful tiles that are neither in the hand nor visible on the table. */
+        public int getLiveCount() {
+            return liveCount;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Discard ").append(Card.of(tile)).append(": shanten ").append(shanten)
+                    .append(", ").append(liveCount).append(" live [");
+            for (int t = 0; t < Card.TYPES; t++) {
+                if ((usefulMask & (1 << t)) != 0) {
+                    sb.append(Card.of(t)).append(' ');
+                }
+            }
+            return sb.toString().trim() + "]";
+        }
+    }
+
+    /**
+     * Returns the shanten of a hand: the better of the standard and seven-pairs shapes.
+     *
+     * @param counts     27 tile counts of the concealed hand (modified during the call, then restored)
+     * @param fixedMelds number of melds already exposed by Peng or Gang
+     * @return shanten, -1 for a complete hand
+     */
+    public int shanten(byte[] counts, int fixedMelds) {
+        int result = standardShanten(counts, fixedMelds);
+        if (fixedMelds == 0) {
+            result = Math.min(result, sevenPairsShanten(counts));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the seven-pairs shanten. In Sichuan rules four of a kind counts as two pairs.
+     *
+     * @param counts 27 tile counts of the concealed hand
+     * @return shanten, -1 for a complete seven pairs hand
+     */
+    public int sevenPairsShanten(byte[] counts) {
+        int pairs = 0;
+        for (int t = 0; t < Card.TYPES; t++) {
+            pairs += counts[t] >> 1;
+        }
+        return 6 - Math.min(pairs, 7);
+    }
+
+    /**
+     * Returns the shanten for the standard shape of four melds plus a pair.
+     *
+     * @param counts     27 tile counts of the concealed hand (modified during the call, then restored)
+     * @param fixedMelds number of melds already exposed by Peng or Gang
+     * @return shanten, -1 for a complete hand
+     */
+    public int standardShanten(byte[] counts, int fixedMelds) {
+        long wan = suitMasks(counts, 0);
+        long tiao = suitMasks(counts, 9);
+        long tong = suitMasks(counts, 18);
+        int fixed = 1 << (Math.min(fixedMelds, 4) * 5);
+
+        // No pair, or the pair in exactly one of the three suits.
+        int noPair = combine(combine(combine(fixed, (int) wan), (int) tiao), (int) tong);
+        int withPair = combine(combine(combine(fixed, (int) (wan >>> 32)), (int) tiao), (int) tong)
+                | combine(combine(combine(fixed, (int) wan), (int) (tiao >>> 32)), (int) tong)
+                | combine(combine(combine(fixed, (int) wan), (int) tiao), (int) (tong >>> 32));
+        return Math.min(bestValue(noPair, 0), bestValue(withPair, 1));
+    }
+
+    /**
+     * Returns the combination masks of one suit: the low 32 bits without a pair, the high
+     * 32 bits with one pair. Bit (melds * 5 + taatsu) is set for every reachable split,
+     * with both numbers capped at 4.
+     */
+    private long suitMasks(byte[] counts, int offset) {
+        int key = HuEngine.suitKey(counts, offset);
+        int slot = (key * 0x9E3779B1) >>> 18;
+        if (cachedKeys[slot] == key + 1) {
+            return cachedMasks[slot];
+        }
+
+        this.counts = counts;
+        int end = offset + 9;
+        suitMask = 0;
+        search(offset, end, 0, 0);
+        long masks = suitMask & 0xFFFFFFFFL;
+        suitMask = 0;
+        for (int t = offset; t < end; t++) {
+            if (counts[t] >= 2) {
+                counts[t] -= 2;
+                search(offset, end, 0, 0);
+                counts[t] += 2;
+            }
+        }
+        masks |= (long) suitMask << 32;
+        this.counts = null;
+
+        cachedKeys[slot] = key + 1;
+        cachedMasks[slot] = masks;
+        return masks;
+    }
+
+    /**
+     * Depth-first split of one suit's tiles into melds and partial melds (taatsu),
+     * recording every reachable (melds, taatsu) pair in suitMask.
+     */
+    private void search(int pos, int end, int melds, int taatsu) {
+        while (pos < end && counts[pos] == 0) {
+            pos++;
+        }
+        if (pos == end) {
+            suitMask |= 1 << (Math.min(melds, 4) * 5 + Math.min(taatsu, 4));
+            return;
+        }
+        int number = pos % 9;
+
+        if (counts[pos] >= 3) {
+            counts[pos] -= 3;
+            search(pos, end, melds + 1, taatsu);
+            counts[pos] += 3;
+        }
+        if (number <= 6 && counts[pos + 1] > 0 && counts[pos + 2] > 0) {
+            counts[pos]--;
+            counts[pos + 1]--;
+            counts[pos + 2]--;
+            search(pos, end, melds + 1, taatsu);
+            counts[pos]++;
+            counts[pos + 1]++;
+            counts[pos + 2]++;
+        }
+        // More than four blocks in total never helps, so stop adding partial melds.
+        if (melds + taatsu < 4) {
+            if (counts[pos] >= 2) {
+                counts[pos] -= 2;
+                search(pos, end, melds, taatsu + 1);
+                counts[pos] += 2;
+            }
+            if (number <= 7 && counts[pos + 1] > 0) {
+                counts[pos]--;
+                counts[pos + 1]--;
+                search(pos, end, melds, taatsu + 1);
+                counts[pos]++;
+                counts[pos + 1]++;
+            }
+            if (number <= 6 && counts[pos + 2] > 0) {
+                counts[pos]--;
+                counts[pos + 2]--;
+                search(pos, end, melds, taatsu + 1);
+                counts[pos]++;
+                counts[pos + 2]++;
+            }
+        }
+        // Leave the tiles at this position as isolated tiles.
+        int saved = counts[pos];
+        counts[pos] = 0;
+        search(pos + 1, end, melds, taatsu);
+        counts[pos] = (byte) saved;
+    }
+
+    /**
+     * Adds two (melds, taatsu) combination masks together, capping both numbers at 4.
+     */
+    private static int combine(int a, int b) {
+        int result = 0;
+        for (int x = a; x != 0; x &= x - 1) {
+            int i = Integer.numberOfTrailingZeros(x);
+            for (int y = b; y != 0; y &= y - 1) {
+                int j = Integer.numberOfTrailingZeros(y);
+                int melds = Math.min(4, i / 5 + j / 5);
+                int taatsu = Math.min(4, i % 5 + j % 5);
+                result |= 1 << (melds * 5 + taatsu);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the lowest 8 - 2 * melds - taatsu - pair over a combination mask.
+     */
+    private static int bestValue(int mask, int pair) {
+        int best = 8;
+        for (int x = mask; x != 0; x &= x - 1) {
+            int i = Integer.numberOfTrailingZeros(x);
+            int melds = i / 5;
+            int value = 8 - 2 * melds - Math.min(i % 5, 4 - melds) - pair;
+            if (value < best) {
+                best = value;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the tiles that would lower the shanten of a waiting hand (13, 10, 7... tiles).
+     *
+     * @param counts     27 tile counts of the concealed hand (modified during the call, then restored)
+     * @param fixedMelds number of exposed melds
+     * @param shanten    the hand's current shanten, as returned by {@link #shanten}
+     * @return a 27-bit mask; bit t is set if drawing tile id t lowers the shanten
+     */
+    public int usefulTiles(byte[] counts, int fixedMelds, int shanten) {
+        int mask = 0;
+        for (int t = 0; t < Card.TYPES; t++) {
+            if (counts[t] == 4 || !canConnect(counts, t)) {
+                continue;
+            }
+            counts[t]++;
+            if (shanten(counts, fixedMelds) < shanten) {
+                mask |= 1 << t;
+            }
+            counts[t]--;
+        }
+        return mask;
+    }
+
+    /**
+     * A drawn tile can only help if it matches or sits within two of a held tile of the same suit.
+     */
+    private static boolean canConnect(byte[] counts, int t) {
+        int suitStart = t - t % 9;
+        int from = Math.max(suitStart, t - 2);
+        int to = Math.min(suitStart + 8, t + 2);
+        for (int i = from; i <= to; i++) {
+            if (counts[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the copies of the masked tiles that are still live (not held and not visible).
+     *
+     * @param counts  27 tile counts of the concealed hand
+     * @param visible 27 counts of tiles visible on the table (discards and exposed melds), or null
+     * @param mask    tiles to count, as returned by {@link #usefulTiles}
+     * @return the number of live copies
+     */
+    public static int liveCount(byte[] counts, byte[] visible, int mask) {
+        int live = 0;
+        for (int t = 0; t < Card.TYPES; t++) {
+            if ((mask & (1 << t)) != 0) {
+                live += Math.max(0, 4 - counts[t] - (visible != null ? visible[t] : 0));
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Evaluates every possible discard from a complete-size hand (14, 11, 8... tiles).
+     *
+     * @param counts     27 tile counts of the concealed hand (modified during the call, then restored)
+     * @param fixedMelds number of exposed melds
+     * @param visible    27 counts of tiles visible on the table, or null
+     * @return one option per distinct tile type in the hand, best first
+     *         (lowest shanten, then most live useful tiles)
+     */
+    public List<DiscardOption> analyzeDiscards(byte[] counts, int fixedMelds, byte[] visible) {
+        List<DiscardOption> options = new ArrayList<>();
+        for (int t = 0; t < Card.TYPES; t++) {
+            if (counts[t] == 0) {
+                continue;
+            }
+            counts[t]--;
+            int s = shanten(counts, fixedMelds);
+            int mask = usefulTiles(counts, fixedMelds, s);
+            options.add(new DiscardOption(t, s, mask, liveCount(counts, visible, mask)));
+            counts[t]++;
+        }
+        options.sort(Comparator.comparingInt(DiscardOption::getShanten)
+                .thenComparing(Comparator.comparingInt(DiscardOption::getLiveCount).reversed()));
+        return options;
+    }
+}
@@ -0,0 +1,104 @@
+package Core;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Headless game engine for playing many hands quickly, e.g. to tune AI players.
+ *
+ * Unlike {@link Game}, the simulator loads no assets, prints nothing and never sleeps.
+ * The seats are supplied by the caller and reused from hand to hand, and every deal comes
+ * from one seeded random source, so a run with the same seed and seats is repeatable.
+ */
+public class Simulator {
+    private final Player[] seats;
+    private final RuleChecker ruleChecker;
+    private final Deck deck;
+    private final byte[] visibleTiles; // discarded tile counts this hand
+
+    /**
+     * Creates a simulator with a seeded random source.
+     *
+     * @param seed  the seed for shuffling
+     * @param seats the players, in turn order; seat 0 is the dealer
+     */
+    public Simulator(long seed, Player... seats) {
+        this(new SplittableRandom(seed), seats);
+    }
+
+    /**
+     * Creates a simulator that shuffles with the given random source.
+     *
+     * @param random the random source for shuffling
+     * @param seats  the players, in turn order; seat 0 is the dealer
+     */
+    public Simulator(RandomGenerator random, Player... seats) {
+        if (seats.length == 0) {
+            throw new IllegalArgumentException("At least one seat is required");
+        }
+        this.seats = seats;
+        this.ruleChecker = new RuleChecker();
+        this.deck = new Deck(random);
+        this.visibleTiles = new byte[Card.TYPES];
+        for (Player p : seats) {
+            if (p instanceof AIPlayer) {
+                ((AIPlayer) p).setVisibleTiles(visibleTiles);
+                ((AIPlayer) p).setTable(Arrays.asList(seats));
+            }
+        }
+    }
+
+    /**
+     * Plays one complete hand: deal, then draw and discard in turn until someone wins
+     * or the deck runs out.
+     *
+     * @return the outcome of the hand
+     */
+    public GameResult playHand() {
+        deck.reset();
+        Arrays.fill(visibleTiles, (byte) 0);
+        for (Player p : seats) {
+            p.clearHand();
+        }
+        deck.deal(seats);
+
+        int turns = 0;
+        int current = 0;
+        while (true) {
+            Player player = seats[current];
+
+            // The dealer starts with 14 cards; everyone else has just drawn.
+            if (ruleChecker.validateHu(player, null)) {
+                Card last = player.getHandCards().get(player.getHandCards().size() - 1);
+                return new GameResult(current, GameResult.NO_SEAT, last.getId(), turns, deck.remainingCards());
+            }
+
+            Card discarded = player.chooseDiscard();
+            player.discardCard(discarded);
+            visibleTiles[discarded.getId()]++;
+            turns++;
+
+            // Any other seat may win on the discard, in turn order from the discarder.
+            for (int i = 1; i < seats.length; i++) {
+                int seat = (current + i) % seats.length;
+                if (ruleChecker.validateHu(seats[seat], discarded)) {
+                    return new GameResult(seat, current, discarded.getId(), turns, deck.remainingCards());
+                }
+            }
+
+            if (deck.isEmpty()) {
+                return new GameResult(GameResult.NO_SEAT, GameResult.NO_SEAT, -1, turns, 0);
+            }
+            current = (current + 1) % seats.length;
+            seats[current].drawCard(deck);
+        }
+    }
+
+    /**
+     * Returns the seats, in turn order.
+     */
+    public Player[] getSeats() {
+        return seats;
+    }
+}
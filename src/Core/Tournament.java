@@ -0,0 +1,83 @@
+package Core;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Plays a large number of simulated hands in parallel on a fork-join pool.
+ *
+ * The game range is split in half recursively; each half takes its own branch of a
+ * {@link SplittableRandom}, so the split tree (and therefore every deal) depends only on the
+ * seed and the game count, not on thread scheduling. Leaf tasks run a private {@link Simulator}
+ * with fresh seats from the factory, and their statistics are merged on join.
+ */
+public class Tournament {
+    /** Number of hands a leaf task plays before it stops splitting. */
+    private static final int GAMES_PER_TASK = 1024;
+
+    private final Supplier<Player[]> seatFactory;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a tournament on the common fork-join pool.
+     *
+     * @param seatFactory creates one set of seats per worker; must return new players on every call
+     */
+    public Tournament(Supplier<Player[]> seatFactory) {
+        this(seatFactory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a tournament on the given pool.
+     *
+     * @param seatFactory creates one set of seats per worker; must return new players on every call
+     * @param pool        the pool to run on
+     */
+    public Tournament(Supplier<Player[]> seatFactory, ForkJoinPool pool) {
+        this.seatFactory = seatFactory;
+        this.pool = pool;
+    }
+
+    /**
+     * Plays the given number of hands and returns the merged statistics.
+     *
+     * @param games number of hands to play
+     * @param seed  master seed; the same seed and game count reproduce the same results
+     * @return statistics over all hands
+     */
+    public TournamentStats run(int games, long seed) {
+        return pool.invoke(new PlayTask(0, games, new SplittableRandom(seed)));
+    }
+
+    private class PlayTask extends RecursiveTask<TournamentStats> {
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        PlayTask(int from, int to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected TournamentStats compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                Player[] seats = seatFactory.get();
+                Simulator simulator = new Simulator(random, seats);
+                TournamentStats stats = new TournamentStats(seats.length);
+                for (int i = from; i < to; i++) {
+                    stats.record(simulator.playHand());
+                }
+                return stats;
+            }
+            int mid = (from + to) >>> 1;
+            PlayTask right = new PlayTask(mid, to, random.split());
+            right.fork();
+            TournamentStats left = new PlayTask(from, mid, random).compute();
+            return left.merge(right.join());
+        }
+    }
+}
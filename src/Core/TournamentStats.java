@@ -0,0 +1,128 @@
+package Core;
+
+/**
+ * Win, draw and discard counts collected over many simulated hands.
+ *
+ * Each tournament worker fills its own instance, and finished workers are combined with
+ * {@link #merge(TournamentStats)}, so no counter is ever shared between threads.
+ */
+public class TournamentStats {
+    private static final double Z_95 = 1.959964; // two-sided 95% normal quantile
+
+    private final int seatCount;
+    private final long[] wins;
+    private final long[] selfDrawnWins;
+    private final long[] dealIns; // discards that another seat won on
+    private long games;
+    private long draws;
+    private long turns;
+
+    public TournamentStats(int seatCount) {
+        this.seatCount = seatCount;
+        this.wins = new long[seatCount];
+        this.selfDrawnWins = new long[seatCount];
+        this.dealIns = new long[seatCount];
+    }
+
+    /**
+     * Adds one hand's result.
+     */
+    public void record(GameResult result) {
+        games++;
+        turns += result.getTurns();
+        if (result.isDraw()) {
+            draws++;
+            return;
+        }
+        wins[result.getWinner()]++;
+        if (result.isSelfDrawn()) {
+            selfDrawnWins[result.getWinner()]++;
+        } else {
+            dealIns[result.getDiscarder()]++;
+        }
+    }
+
+    /**
+     * Adds another worker's counts into this one.
+     * @return this instance, for use as a reduction step.
+     */
+    public TournamentStats merge(TournamentStats other) {
+        for (int i = 0; i < seatCount; i++) {
+            wins[i] += other.wins[i];
+            selfDrawnWins[i] += other.selfDrawnWins[i];
+            dealIns[i] += other.dealIns[i];
+        }
+        games += other.games;
+        draws += other.draws;
+        turns += other.turns;
+        return this;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+
+    public long getSelfDrawnWins(int seat) {
+        return selfDrawnWins[seat];
+    }
+
+    public long getDealIns(int seat) {
+        return dealIns[seat];
+    }
+
+    /**
+     * Returns the fraction of hands the seat won.
+     */
+    public double winRate(int seat) {
+        return games == 0 ? 0 : (double) wins[seat] / games;
+    }
+
+    /**
+     * Returns the 95% Wilson score interval {low, high} for a count out of the games played.
+     */
+    public double[] confidenceInterval(long successes) {
+        if (games == 0) {
+            return new double[]{0, 1};
+        }
+        double n = games;
+        double p = successes / n;
+        double z2 = Z_95 * Z_95;
+        double centre = (p + z2 / (2 * n)) / (1 + z2 / n);
+        double margin = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n)) / (1 + z2 / n);
+        return new double[]{Math.max(0, centre - margin), Math.min(1, centre + margin)};
+    }
+
+    /**
+     * Returns a multi-line summary with per-seat win, self-draw and deal-in rates.
+     * @param seatNames names to print for each seat.
+     */
+    public String report(String... seatNames) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Games: %d, average discards per hand: %.1f%n",
+                games, games == 0 ? 0.0 : (double) turns / games));
+        for (int i = 0; i < seatCount; i++) {
+            String name = i < seatNames.length ? seatNames[i] : "Seat " + i;
+            double[] ci = confidenceInterval(wins[i]);
+            sb.append(String.format("%-10s win %6.2f%% [%.2f%%, %.2f%%]  self-drawn %6.2f%%  dealt in %6.2f%%%n",
+                    name, 100 * winRate(i), 100 * ci[0], 100 * ci[1],
+                    100.0 * selfDrawnWins[i] / Math.max(1, games), 100.0 * dealIns[i] / Math.max(1, games)));
+        }
+        double[] ci = confidenceInterval(draws);
+        sb.append(String.format("Draws      %6.2f%% [%.2f%%, %.2f%%]",
+                100.0 * draws / Math.max(1, games), 100 * ci[0], 100 * ci[1]));
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+}
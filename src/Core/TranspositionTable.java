@@ -0,0 +1,126 @@
+package Core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size table from position hashes (see {@link GameState#hash()}) to search results,
+ * shared without locks by any number of search threads.
+ *
+ * Each slot is two longs, the key XOR the data and the data, so a slot torn by two threads
+ * writing at once no longer matches either key and reads as a miss instead of the wrong
+ * result (Hyatt and Mann's lockless hashing). A store always replaces what was in its slot;
+ * a search that needs an entry to survive must store it again. The table never grows, so its
+ * memory is fixed when it is created.
+ *
+ * A key of 0 with data 0 is an empty slot and never hits.
+ */
+public final class TranspositionTable {
+    /** Default number of slots (16 bytes each). */
+    public static final int DEFAULT_SLOTS = 1 << 20;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    public TranspositionTable() {
+        this(DEFAULT_SLOTS);
+    }
+
+    /**
+     * @param slots number of entries; rounded up to a power of two
+     */
+    public TranspositionTable(int slots) {
+        if (slots < 1 || slots > 1 << 29) {
+            throw new IllegalArgumentException("Slot count out of range: " + slots);
+        }
+        int n = Integer.highestOneBit(slots);
+        if (n < slots) {
+            n <<= 1;
+        }
+        this.slots = new AtomicLongArray(2 * n);
+        this.mask = n - 1;
+    }
+
+    /**
+     * Looks a position up.
+     *
+     * @param key    the position's hash
+     * @param absent returned on a miss
+     * @return the data last stored under the key, or absent
+     */
+    public long get(long key, long absent) {
+        probes.increment();
+        int i = index(key);
+        long data = slots.get(i + 1);
+        long check = slots.get(i);
+        if ((check ^ data) != key || check == 0 && data == 0) {
+            return absent;
+        }
+        hits.increment();
+        return data;
+    }
+
+    /**
+     * Stores data under a position's hash, replacing whatever was in its slot.
+     */
+    public void put(long key, long data) {
+        int i = index(key);
+        slots.set(i, key ^ data);
+        slots.set(i + 1, data);
+        stores.increment();
+    }
+
+    // Fibonacci hashing: the slot comes from the well-mixed middle bits of key * 2^64 / phi.
+    private int index(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32 & mask) << 1;
+    }
+
+    /**
+     * Returns the number of slots.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * Returns hits / probes, or 0 before the first probe.
+     */
+    public double getHitRate() {
+        long p = probes.sum();
+        return p == 0 ? 0 : (double) hits.sum() / p;
+    }
+
+    /**
+     * Empties every slot and resets the counters. Not atomic: threads using the table meanwhile
+     * may see some old entries.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, 0);
+        }
+        probes.reset();
+        hits.reset();
+        stores.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d slots, %d probes, %d hits (%.1f%%), %d stores",
+                getCapacity(), getProbes(), getHits(), 100 * getHitRate(), getStores());
+    }
+}
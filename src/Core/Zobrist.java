@@ -0,0 +1,81 @@
+package Core;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for hashing a table position, shared by {@link Player}, {@link DiscardPile},
+ * {@link Game} and {@link GameState} so that they all hash the same position the same way.
+ *
+ * A hand or a discard pile is a multiset, so its hash is the sum of one key per tile it holds:
+ * adding or removing a tile adds or subtracts its key, and a repeated tile needs no copy index.
+ * A position hash XORs together the hand hash of each seat (mixed with the seat, see
+ * {@link #seat}), the discard hash, the wall cursors and the seat to act. The wall order itself
+ * is not hashed: it is fixed for the whole hand, so positions from different deals should not
+ * share a table without a per-deal salt.
+ *
+ * The keys come from a fixed seed, so hashes are the same in every run.
+ */
+final class Zobrist {
+    /** Seats the keys cover; a meld records its source seat in two bits, so no table has more. */
+    static final int MAX_SEATS = 4;
+
+    private static final long[] TILE = new long[Card.TYPES];
+    private static final long[] MELD = new long[2 * Card.TYPES];
+    private static final long[] DISCARD = new long[MAX_SEATS * Card.TYPES];
+    private static final long[] SEAT = new long[MAX_SEATS];
+    private static final long[] TURN = new long[MAX_SEATS];
+    private static final long[] HEAD = new long[Deck.SIZE + 1];
+    private static final long[] TAIL = new long[Deck.SIZE + 1];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5A0B_7157L);
+        for (long[] keys : new long[][] {TILE, MELD, DISCARD, SEAT, TURN, HEAD, TAIL}) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /** Key of one concealed copy of a tile. */
+    static long tile(int tile) {
+        return TILE[tile];
+    }
+
+    /** Key of an exposed Peng or Gang of a tile. */
+    static long meld(int tile, boolean gang) {
+        return MELD[(gang ? Card.TYPES : 0) + tile];
+    }
+
+    /** Key of one tile in the discards, by the seat that discarded it. */
+    static long discard(int seat, int tile) {
+        return DISCARD[seat * Card.TYPES + tile];
+    }
+
+    /** Key of the seat to act. */
+    static long turn(int seat) {
+        return TURN[seat];
+    }
+
+    /** Key of the wall cursors. */
+    static long wall(int head, int tail) {
+        return HEAD[head] ^ TAIL[tail];
+    }
+
+    /**
+     * Mixes a hand hash with its seat, so that two seats swapping hands change the position
+     * hash. The mix is a bijection (MurmurHash3's finalizer), so distinct hands stay distinct.
+     */
+    static long seat(int seat, long handHash) {
+        return mix(handHash ^ SEAT[seat]);
+    }
+
+    /** MurmurHash3's 64-bit finalizer: a bijection that spreads every input bit over the output. */
+    static long mix(long h) {
+        h = (h ^ h >>> 33) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ h >>> 33) * 0xC4CEB9FE1A85EC53L;
+        return h ^ h >>> 33;
+    }
+}
@@ -0,0 +1,266 @@
+package UI;
+
+import Core.*;
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * GameLoop.java
+ * Drives the Game on a dedicated game-loop thread as a turn state machine, so the Swing EDT never waits
+ * on game logic. The loop observes the game as a GameListener and publishes a snapshot on each event;
+ * changes made before the EDT gets round to a refresh are coalesced into a single invokeLater.
+ *
+ * Discards are not part of the snapshot: the table follows the game's DiscardPile, and each discard is
+ * forwarded to the EDT as it happens, so the view only ever appends one tile.
+ *
+ * Human turns are not blocking: the loop asks the HumanPlayer for a discard future, and InputHandler
+ * completes it when the user confirms a card. Claims on a discard work the same way: the game collects
+ * every seat's answer as a future, the table shows the human's options, and the loop carries on as soon
+ * as the last answer is in (or the claim timeout passes).
+ */
+public class GameLoop {
+    private static final long AI_TURN_MS = 600; // shortest AI turn, so moves can be followed; thinking counts toward it
+
+    private final Game game;
+    private final GameUI gameUI;
+    private final GamePanel gamePanel;
+    private final HumanPlayer human;
+    private final ScheduledExecutorService executor;
+    private final AtomicReference<TableState> pendingState = new AtomicReference<>();
+
+    private int handNumber; // incremented per deal; stale scheduled steps compare against it (loop thread only)
+    private TableState shownState; // last state applied to the UI (EDT only)
+
+    public GameLoop(Game game, GameUI gameUI, GamePanel gamePanel) {
+        this.game = game;
+        this.gameUI = gameUI;
+        this.gamePanel = gamePanel;
+        this.human = (HumanPlayer) game.getPlayers().get(0);
+        human.setPromptForClaims(true);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-loop");
+            t.setDaemon(true);
+            return t;
+        });
+        game.getDiscardPile().addListener(new DiscardListener() {
+            @Override
+            public void discardAdded(int seat, Card card, int seatIndex) {
+                SwingUtilities.invokeLater(() -> gamePanel.addDiscard(seat, card));
+            }
+
+            @Override
+            public void discardsCleared() {
+                SwingUtilities.invokeLater(gamePanel::clearDiscards);
+            }
+        });
+        game.addListener(new GameListener() {
+            @Override
+            public void handDealt(Game game) {
+                publish();
+            }
+
+            @Override
+            public void turnStarted(Game game, int seat) {
+                publish();
+            }
+
+            @Override
+            public void tileDiscarded(Game game, int seat, Card card) {
+                publish();
+            }
+
+            @Override
+            public void tileClaimed(Game game, int seat, Claim claim, Card card) {
+                publish();
+            }
+
+            @Override
+            public void stateRestored(Game game) {
+                publish();
+            }
+
+            @Override
+            public void gameOver(Game game, int winner) {
+                publish();
+            }
+        });
+    }
+
+    /**
+     * Deals a new game and starts playing it on the game-loop thread.
+     */
+    public void start() {
+        executor.execute(this::beginHand);
+    }
+
+    /**
+     * Abandons the current game and deals a new one.
+     */
+    public void restart() {
+        human.cancelPendingDiscard();
+        human.cancelPendingClaim();
+        executor.execute(this::beginHand);
+    }
+
+    /**
+     * Stops the game-loop thread.
+     */
+    public void shutdown() {
+        human.cancelPendingDiscard();
+        human.cancelPendingClaim();
+        executor.shutdownNow();
+    }
+
+    private void beginHand() {
+        handNumber++;
+        game.setUpGame();
+        scheduleTurn(0);
+    }
+
+    private void scheduleTurn(long delayMs) {
+        int hand = handNumber;
+        executor.schedule(() -> {
+            if (hand == handNumber) {
+                runTurn();
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void runTurn() {
+        Player player = game.beginTurn();
+        if (game.isOver()) {
+            finishHand();
+            return;
+        }
+        if (player.isHuman()) {
+            // Wait for InputHandler without holding the loop thread.
+            int hand = handNumber;
+            human.requestDiscard().thenAcceptAsync(card -> {
+                if (hand == handNumber) {
+                    endTurn(card);
+                }
+            }, executor);
+        } else {
+            endTurn(player.chooseDiscard());
+        }
+    }
+
+    private void endTurn(Card discarded) {
+        game.completeTurn(discarded);
+        int options = game.getClaimOptions(0);
+        if (options != 0) {
+            SwingUtilities.invokeLater(() -> gamePanel.showClaimPrompt(options));
+        }
+        // Completes at once unless a seat has to think, e.g. the human choosing whether to claim.
+        int hand = handNumber;
+        game.requestClaims().thenAcceptAsync(answers -> {
+            if (hand == handNumber) {
+                settleClaims(answers, options != 0);
+            }
+        }, executor);
+    }
+
+    private void settleClaims(Claim[] answers, boolean prompted) {
+        if (prompted) {
+            SwingUtilities.invokeLater(gamePanel::hideClaimPrompt);
+        }
+        int taker = game.resolveClaims(answers);
+        if (game.isOver()) {
+            finishHand();
+            return;
+        }
+        if (taker == GameResult.NO_SEAT) {
+            game.nextTurn();
+        }
+        publish(); // the turn indicator moves on before the next seat draws
+        Player next = game.getPlayers().get(game.getCurrentTurn());
+        scheduleTurn(next.isHuman() ? 0 : aiTurnDelay(next));
+    }
+
+    // A searching AI spends its budget thinking inside the turn, so it is only paced by what is left.
+    private static long aiTurnDelay(Player player) {
+        long budget = player instanceof AIPlayer ? ((AIPlayer) player).getDiscardStrategy().getBudgetMillis() : 0;
+        return Math.max(0, AI_TURN_MS - budget);
+    }
+
+    private void finishHand() {
+        game.endGame();
+    }
+
+    /**
+     * Takes a snapshot of the table on the loop thread and hands it to the EDT.
+     * Only the newest snapshot is applied if several arrive before the EDT runs.
+     */
+    private void publish() {
+        TableState state = new TableState(game);
+        if (pendingState.getAndSet(state) == null) {
+            SwingUtilities.invokeLater(this::applyPendingState);
+        }
+    }
+
+    private void applyPendingState() {
+        TableState state = pendingState.getAndSet(null);
+        if (state == null) {
+            return;
+        }
+        TableState previous = shownState;
+        shownState = state;
+
+        if (previous == null || !previous.hand.equals(state.hand)) {
+            gamePanel.updateHand(state.hand);
+        }
+        for (int seat = 0; seat < state.melds.size(); seat++) {
+            if (previous == null || !previous.melds.get(seat).equals(state.melds.get(seat))) {
+                gamePanel.updateMelds(seat, state.melds.get(seat));
+            }
+        }
+        gameUI.updateRemainingCards(state.remaining);
+        gameUI.updateTurnIndicator(state.turn);
+        if (previous == null || previous.waits != state.waits) {
+            gameUI.updateWaits(state.waits);
+        }
+
+        if (state.over && (previous == null || !previous.over)) {
+            if (!state.scores.isEmpty()) {
+                gameUI.showWinner(state.scores, state.seatNames, state.pointChanges);
+            } else {
+                gameUI.showDraw();
+            }
+        }
+    }
+
+    /**
+     * An immutable copy of what the UI displays.
+     */
+    private static final class TableState {
+        final List<Card> hand;
+        final List<List<Meld>> melds;
+        final int waits; // the human's winning tiles
+        final int remaining;
+        final int turn;
+        final boolean over;
+        final List<HandScore> scores;
+        final String[] seatNames;
+        final int[] pointChanges;
+
+        TableState(Game game) {
+            this.hand = new ArrayList<>(game.getPlayers().get(0).getHandCards());
+            this.waits = game.getPlayers().get(0).getWaits();
+            this.melds = new ArrayList<>();
+            for (Player p : game.getPlayers()) {
+                melds.add(new ArrayList<>(p.getMelds()));
+            }
+            this.remaining = game.getDeck().remainingCards();
+            this.turn = game.getCurrentTurn();
+            this.over = game.isOver();
+            this.scores = over ? new ArrayList<>(game.getScores()) : List.of();
+            this.seatNames = game.getSeatNames();
+            this.pointChanges = game.getPointChanges();
+        }
+    }
+}
@@ -1,46 +1,360 @@
 package UI;
 
+import Assets.AssetsManager;
+import Assets.TileAtlas;
 import Core.*;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * GamePanel.java
- * Responsible for drawing the human player's hand and registering interaction events.
- * Supports click-selection of Mahjong tiles (cards), discarding, and canceling.
+ * The table: paints the human player's hand and each seat's discard river straight from the tile atlas.
+ * Rivers are laid out around the centre of the table, rotated to face the seat that played them.
+ * Exposed melds are drawn after the human's hand, and in a corner of the table for the other seats.
+ * When the human may claim a discard, the allowed claims are painted above the hand as prompt icons.
+ * There is one component and one mouse listener for the whole table; clicks are hit-tested
+ * against the hand layout, and only the regions that change are repainted.
  */
 public class GamePanel extends JPanel {
-    private HumanPlayer player;
+    private static final int HAND_X = 20;
+    private static final int HAND_SPACING = 50;
+    private static final int HAND_BOTTOM_MARGIN = 4;
+    private static final int SELECT_LIFT = AssetsManager.HAND_TILE_HEIGHT / 2;
 
-    public GamePanel(HumanPlayer player) {
-        this.player = player;
-        this.setLayout(null); // Absolute positioning
+    private static final int SEATS = 4;
+    private static final int RIVER_COLUMNS = 6;
+    private static final int RIVER_ROWS = 3; // the last row keeps growing sideways instead of wrapping
+    private static final int RIVER_OFFSET = RIVER_COLUMNS * AssetsManager.DISCARD_TILE_WIDTH / 2;
+    private static final int RIVER_CENTER_Y = RIVER_OFFSET + RIVER_ROWS * AssetsManager.DISCARD_TILE_HEIGHT;
+
+    private static final int MELD_GAP = 10;
+    private static final int MELD_WIDTH = 4 * AssetsManager.DISCARD_TILE_WIDTH + MELD_GAP;
+    private static final int MELD_ROW_HEIGHT = AssetsManager.DISCARD_TILE_HEIGHT + 4;
+    private static final int SIDE_MELD_Y = 120; // below the top-right melds of seat 2
+
+    private static final int PROMPT_SIZE = 48;
+    private static final int PROMPT_SPACING = PROMPT_SIZE + 8;
+    private static final Claim[] PROMPT_ORDER = {Claim.HU, Claim.GANG, Claim.PENG, Claim.PASS};
+
+    private final TileAtlas atlas;
+    private final List<Card> hand = new ArrayList<>();
+    private final List<List<Card>> rivers = new ArrayList<>();
+    private final List<List<Meld>> melds = new ArrayList<>();
+    private int selectedIndex = -1;
+    private int claimOptions; // Claim bits offered to the human, 0 when no prompt is shown
+
+    public GamePanel(HumanPlayer player, AssetsManager assets) {
+        this.atlas = assets.getTileAtlas();
+        // Tiles are drawn as placeholders until the background loader puts them in the atlas.
+        atlas.addReadyListener(this::repaint);
+        this.setLayout(null);
         this.setBackground(new Color(230, 230, 230));
+        this.addMouseListener(new InputHandler(player, this));
+        for (int seat = 0; seat < SEATS; seat++) {
+            rivers.add(new ArrayList<>());
+            melds.add(new ArrayList<>());
+        }
     }
 
     /**
      * Updates the panel with the current hand of the player.
-     * Reconstructs card images with event bindings.
+     * Clears any selection and repaints only the hand area.
      * @param handCards List of cards to display
      */
     public void updateHand(List<Card> handCards) {
-        this.removeAll();
+        hand.clear();
+        hand.addAll(handCards);
+        selectedIndex = -1;
+        repaint(handArea());
+    }
+
+    /**
+     * Appends one discard to the seat's river, repainting only the new tile.
+     * @param seat the seat that discarded it
+     * @param card the discarded card
+     */
+    public void addDiscard(int seat, Card card) {
+        List<Card> river = rivers.get(seat % SEATS);
+        river.add(card);
+        repaint(riverBounds(seat % SEATS, river.size() - 1));
+    }
+
+    /**
+     * Empties every river for a new hand.
+     */
+    public void clearDiscards() {
+        for (int seat = 0; seat < SEATS; seat++) {
+            List<Card> river = rivers.get(seat);
+            for (int i = 0; i < river.size(); i++) {
+                repaint(riverBounds(seat, i));
+            }
+            river.clear();
+        }
+    }
+
+    /**
+     * Replaces a seat's exposed melds and repaints where they are drawn.
+     * @param seat      the seat
+     * @param seatMelds the seat's melds, in the order they were claimed
+     */
+    public void updateMelds(int seat, List<Meld> seatMelds) {
+        List<Meld> shown = melds.get(seat % SEATS);
+        repaint(meldArea(seat % SEATS, shown.size()));
+        shown.clear();
+        shown.addAll(seatMelds);
+        repaint(meldArea(seat % SEATS, shown.size()));
+    }
+
+    /**
+     * Shows the claims the human may make on a discard, plus Pass.
+     * @param options a mask of Claim bits
+     */
+    public void showClaimPrompt(int options) {
+        claimOptions = options;
+        repaint(promptArea());
+    }
+
+    /**
+     * Removes the claim prompt once the claims are settled.
+     */
+    public void hideClaimPrompt() {
+        if (claimOptions != 0) {
+            claimOptions = 0;
+            repaint(promptArea());
+        }
+    }
+
+    /**
+     * Returns the claim whose prompt icon is under (x, y), or null if there is none.
+     */
+    Claim claimAt(int x, int y) {
+        if (claimOptions == 0) {
+            return null;
+        }
+        int slot = 0;
+        for (Claim claim : PROMPT_ORDER) {
+            if (claim.isAllowed(claimOptions)) {
+                if (promptBounds(slot).contains(x, y)) {
+                    return claim;
+                }
+                slot++;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the hand tile under (x, y), or -1 if there is none.
+     */
+    int tileIndexAt(int x, int y) {
+        if (x < HAND_X) {
+            return -1;
+        }
+        int index = (x - HAND_X) / HAND_SPACING;
+        if (index >= hand.size() || x - HAND_X - index * HAND_SPACING >= AssetsManager.HAND_TILE_WIDTH) {
+            return -1;
+        }
+        return handBounds(index).contains(x, y) ? index : -1;
+    }
+
+    Card getHandCard(int index) {
+        return hand.get(index);
+    }
+
+    int getSelectedIndex() {
+        return selectedIndex;
+    }
+
+    /**
+     * Raises the tile at index (or none for -1), repainting only the two affected tiles.
+     */
+    void setSelectedIndex(int index) {
+        if (index == selectedIndex) {
+            return;
+        }
+        int previous = selectedIndex;
+        selectedIndex = index;
+        if (previous >= 0) {
+            repaint(liftedBounds(previous));
+        }
+        if (index >= 0) {
+            repaint(liftedBounds(index));
+        }
+    }
 
-        int xOffset = 10; // spacing from the left
-        int spacing = 50; // space between cards
+    /**
+     * Takes a confirmed discard out of the shown hand until the game loop publishes the new one.
+     */
+    void removeHandTile(int index) {
+        hand.remove(index);
+        selectedIndex = -1;
+        repaint(handArea());
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Rectangle clip = g.getClipBounds();
+
+        for (int seat = 0; seat < SEATS; seat++) {
+            List<Card> river = rivers.get(seat);
+            if (river.isEmpty()) {
+                continue;
+            }
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.transform(riverTransform(seat));
+            for (int i = 0; i < river.size(); i++) {
+                if (clip == null || clip.intersects(riverBounds(seat, i))) {
+                    Rectangle r = riverSlot(i);
+                    atlas.drawDiscardTile(g2, river.get(i).getId(), r.x, r.y);
+                }
+            }
+            g2.dispose();
+        }
+
+        for (int i = 0; i < hand.size(); i++) {
+            Rectangle r = handBounds(i);
+            if (clip == null || clip.intersects(r)) {
+                atlas.drawHandTile(g, hand.get(i).getId(), r.x, r.y);
+            }
+        }
+
+        for (int seat = 0; seat < SEATS; seat++) {
+            List<Meld> seatMelds = melds.get(seat);
+            for (int m = 0; m < seatMelds.size(); m++) {
+                Point origin = meldOrigin(seat, m);
+                Meld meld = seatMelds.get(m);
+                for (int k = 0; k < meld.size(); k++) {
+                    atlas.drawDiscardTile(g, meld.getCard().getId(),
+                            origin.x + k * AssetsManager.DISCARD_TILE_WIDTH, origin.y);
+                }
+            }
+        }
+
+        if (claimOptions != 0) {
+            int slot = 0;
+            for (Claim claim : PROMPT_ORDER) {
+                if (claim.isAllowed(claimOptions)) {
+                    Rectangle r = promptBounds(slot++);
+                    atlas.drawPromptIcon(g, promptName(claim), r.x, r.y);
+                }
+            }
+        }
+    }
 
-        for (Card card : handCards) {
-            ImageIcon icon = new ImageIcon(getClass().getResource(card.getImagePath()));
-            JLabel cardLabel = new JLabel(icon);
-            cardLabel.setBounds(xOffset, 30, 50, 70);
-            cardLabel.putClientProperty("card", card); // associate card with label
-            cardLabel.addMouseListener(new InputHandler(player));
-            this.add(cardLabel);
-            xOffset += spacing;
+    private static String promptName(Claim claim) {
+        switch (claim) {
+            case PENG:
+                return "Peng";
+            case GANG:
+                return "Gang";
+            case HU:
+                return "Hu";
+            default:
+                return "Pass";
         }
+    }
 
-        this.revalidate();
-        this.repaint();
+    /**
+     * Top-left corner of a seat's m-th meld: in the hand row after the human's tiles, in a column
+     * at the right (seat 1) or left (seat 3) edge, or two to a row at the top right (seat 2).
+     */
+    private Point meldOrigin(int seat, int m) {
+        switch (seat) {
+            case 0:
+                return new Point(HAND_X + hand.size() * HAND_SPACING + MELD_GAP + m * MELD_WIDTH,
+                        handY() + AssetsManager.HAND_TILE_HEIGHT - AssetsManager.DISCARD_TILE_HEIGHT);
+            case 1:
+                return new Point(getWidth() - MELD_WIDTH, SIDE_MELD_Y + m * MELD_ROW_HEIGHT);
+            case 2:
+                return new Point(getWidth() - (2 - m % 2) * MELD_WIDTH, 4 + m / 2 * MELD_ROW_HEIGHT);
+            default:
+                return new Point(4, SIDE_MELD_Y + m * MELD_ROW_HEIGHT);
+        }
+    }
+
+    /**
+     * The region covering a seat's first count melds (the whole hand row for seat 0, whose
+     * melds move with the hand).
+     */
+    private Rectangle meldArea(int seat, int count) {
+        if (seat == 0) {
+            return handArea();
+        }
+        Rectangle area = new Rectangle(meldOrigin(seat, 0),
+                new Dimension(MELD_WIDTH, AssetsManager.DISCARD_TILE_HEIGHT));
+        for (int m = 1; m < count; m++) {
+            area.add(new Rectangle(meldOrigin(seat, m), new Dimension(MELD_WIDTH, AssetsManager.DISCARD_TILE_HEIGHT)));
+        }
+        return area;
+    }
+
+    /**
+     * The slot-th prompt icon, right-aligned above the hand.
+     */
+    private Rectangle promptBounds(int slot) {
+        return new Rectangle(getWidth() - HAND_X - (slot + 1) * PROMPT_SPACING,
+                handY() - SELECT_LIFT - PROMPT_SIZE - 8, PROMPT_SIZE, PROMPT_SIZE);
+    }
+
+    private Rectangle promptArea() {
+        Rectangle first = promptBounds(0);
+        Rectangle last = promptBounds(PROMPT_ORDER.length - 1);
+        return first.union(last);
+    }
+
+    private int handY() {
+        return getHeight() - AssetsManager.HAND_TILE_HEIGHT - HAND_BOTTOM_MARGIN;
+    }
+
+    private Rectangle handBounds(int index) {
+        int y = handY() - (index == selectedIndex ? SELECT_LIFT : 0);
+        return new Rectangle(HAND_X + index * HAND_SPACING, y,
+                AssetsManager.HAND_TILE_WIDTH, AssetsManager.HAND_TILE_HEIGHT);
+    }
+
+    /**
+     * The tile's slot including the space it occupies when raised.
+     */
+    private Rectangle liftedBounds(int index) {
+        return new Rectangle(HAND_X + index * HAND_SPACING, handY() - SELECT_LIFT,
+                AssetsManager.HAND_TILE_WIDTH, AssetsManager.HAND_TILE_HEIGHT + SELECT_LIFT);
+    }
+
+    private Rectangle handArea() {
+        // Up to the right edge, since the human's melds follow the hand.
+        return new Rectangle(HAND_X, handY() - SELECT_LIFT,
+                getWidth() - HAND_X, AssetsManager.HAND_TILE_HEIGHT + SELECT_LIFT);
+    }
+
+    /**
+     * Maps the river layout of seat 0 (below the centre, facing up) to the given seat,
+     * turning a quarter counter-clockwise per seat.
+     */
+    private AffineTransform riverTransform(int seat) {
+        AffineTransform transform = AffineTransform.getTranslateInstance(getWidth() / 2.0, RIVER_CENTER_Y);
+        transform.quadrantRotate(-seat);
+        return transform;
+    }
+
+    /**
+     * The index-th tile's slot in seat 0's orientation, relative to the table centre.
+     */
+    private static Rectangle riverSlot(int index) {
+        int row = Math.min(index / RIVER_COLUMNS, RIVER_ROWS - 1);
+        int column = index - row * RIVER_COLUMNS;
+        return new Rectangle(-RIVER_OFFSET + column * AssetsManager.DISCARD_TILE_WIDTH,
+                RIVER_OFFSET + row * AssetsManager.DISCARD_TILE_HEIGHT,
+                AssetsManager.DISCARD_TILE_WIDTH, AssetsManager.DISCARD_TILE_HEIGHT);
+    }
+
+    /**
+     * The index-th tile of the seat's river, in panel coordinates.
+     */
+    private Rectangle riverBounds(int seat, int index) {
+        return riverTransform(seat).createTransformedShape(riverSlot(index)).getBounds();
     }
 }
@@ -1,8 +1,9 @@
 package UI;
 
+import Assets.AssetsManager;
 import Core.Card;
+import Core.HandScore;
 import javax.swing.*;
-import java.awt.*;
 import java.util.List;
 
 public class GameUI {
@@ -12,14 +13,14 @@ public class GameUI {
     // UI Components
     private JLabel remainingCardsLabel; // Left-top: displays remaining deck count
     private JLabel turnIndicatorLabel;  // Top-center: indicates current turn
-    private JPanel playedCardsPanel;    // Center: displays played cards in order
-    private JLabel initialGangHintLabel; // Bottom-left: displays Gang hint (until chosen)
+    private JLabel initialGangHintLabel; // Top-right: displays Gang hint (until chosen)
+    private JLabel waitsLabel;           // Left-top, below the count: tiles that would win
 
-    // Prompt Icons from Assets
-    private ImageIcon pengIcon;
-    private ImageIcon gangIcon;
-    private ImageIcon huIcon;
-    private ImageIcon passIcon;
+    private final AssetsManager assets;
+
+    public GameUI(AssetsManager assets) {
+        this.assets = assets;
+    }
 
     /**
      * Initializes the UI components and layout.
@@ -42,32 +43,33 @@ public class GameUI {
         remainingCardsLabel.setBounds(10, 10, 150, 20);
         mainPanel.add(remainingCardsLabel);
 
+        // Waiting tiles below it, shown only while the hand is one tile from a win
+        waitsLabel = new JLabel();
+        waitsLabel.setBounds(10, 30, 330, 20);
+        waitsLabel.setVisible(false);
+        mainPanel.add(waitsLabel);
+
         // Turn indicator label at top-center
         turnIndicatorLabel = new JLabel("Turn: ");
         turnIndicatorLabel.setBounds(350, 10, 100, 20);
         mainPanel.add(turnIndicatorLabel);
 
-        // Played cards panel in the center (using FlowLayout)
-        playedCardsPanel = new JPanel(new FlowLayout());
-        playedCardsPanel.setBounds(150, 250, 500, 100);
-        playedCardsPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-        mainPanel.add(playedCardsPanel);
-
-        // Initial Gang hint label (hidden by default) at bottom-left
+        // Initial Gang hint label (hidden by default) at top-right
         initialGangHintLabel = new JLabel();
-        initialGangHintLabel.setBounds(10, 500, 250, 30);
+        initialGangHintLabel.setBounds(500, 0, 290, 40);
         initialGangHintLabel.setVisible(false);
         mainPanel.add(initialGangHintLabel);
 
-        // Load prompt icons from Assets folder
-        pengIcon = new ImageIcon(getClass().getResource("/Assets/mahjong/Peng.png"));
-        gangIcon = new ImageIcon(getClass().getResource("/Assets/mahjong/Gang.png"));
-        huIcon   = new ImageIcon(getClass().getResource("/Assets/mahjong/Hu.png"));
-        passIcon = new ImageIcon(getClass().getResource("/Assets/mahjong/Pass.png"));
-
         mainFrame.setVisible(true);
     }
 
+    /**
+     * Returns the main panel that holds all table components.
+     */
+    public JPanel getMainPanel() {
+        return mainPanel;
+    }
+
     /**
      * Refreshes the entire UI.
      */
@@ -85,24 +87,6 @@ public class GameUI {
         remainingCardsLabel.setText("Remaining Cards: " + count);
     }
 
-    /**
-     * Displays played cards in the center panel in the order they were played.
-     * Adjustments for rotation based on player position can be added here.
-     *
-     * @param playedCards List of played cards.
-     */
-    public void displayPlayedCards(List<Card> playedCards) {
-        playedCardsPanel.removeAll();
-        for (Card card : playedCards) {
-            // Load card image from its imagePath; no rotation is applied in this basic example.
-            ImageIcon cardIcon = new ImageIcon(getClass().getResource(card.getImagePath()));
-            JLabel cardLabel = new JLabel(cardIcon);
-            playedCardsPanel.add(cardLabel);
-        }
-        playedCardsPanel.revalidate();
-        playedCardsPanel.repaint();
-    }
-
     /**
      * Displays a prompt icon for Peng, Gang, Hu, or Pass on the given card.
      * Here, we simulate this by showing a dialog. In a complete UI, you'd overlay
@@ -112,15 +96,12 @@ public class GameUI {
      * @param card The card for which the prompt is applicable.
      */
     public void showPengGangHuIcon(String type, Card card) {
+        // Prompt icons are fetched from the shared cache when first needed, not at startup.
         ImageIcon iconToShow = null;
-        if ("Peng".equalsIgnoreCase(type)) {
-            iconToShow = pengIcon;
-        } else if ("Gang".equalsIgnoreCase(type)) {
-            iconToShow = gangIcon;
-        } else if ("Hu".equalsIgnoreCase(type)) {
-            iconToShow = huIcon;
-        } else if ("Pass".equalsIgnoreCase(type)) {
-            iconToShow = passIcon;
+        for (String name : new String[]{"Peng", "Gang", "Hu", "Pass"}) {
+            if (name.equalsIgnoreCase(type)) {
+                iconToShow = assets.getPromptIcon(name);
+            }
         }
         if (iconToShow != null) {
             JOptionPane.showMessageDialog(mainFrame,
@@ -134,7 +115,7 @@ public class GameUI {
      */
     public void showInitialGangHint() {
         initialGangHintLabel.setText("Gang available! (Click Gang or Pass)");
-        initialGangHintLabel.setIcon(gangIcon);
+        initialGangHintLabel.setIcon(assets.getPromptIcon("Gang"));
         initialGangHintLabel.setVisible(true);
     }
 
@@ -145,6 +126,24 @@ public class GameUI {
         initialGangHintLabel.setVisible(false);
     }
 
+    /**
+     * Shows the tiles that would complete the human's hand, or hides the hint if there are none.
+     *
+     * @param waits a mask of tile ids, from Player.getWaits
+     */
+    public void updateWaits(int waits) {
+        if (waits == 0) {
+            waitsLabel.setVisible(false);
+            return;
+        }
+        StringBuilder sb = new StringBuilder("Waiting on:");
+        for (int w = waits; w != 0; w &= w - 1) {
+            sb.append(' ').append(Card.of(Integer.numberOfTrailingZeros(w)));
+        }
+        waitsLabel.setText(sb.toString());
+        waitsLabel.setVisible(true);
+    }
+
     /**
      * Updates the turn indicator label to reflect the current player's turn.
      *
@@ -155,12 +154,26 @@ public class GameUI {
     }
 
     /**
-     * Displays a winner dialog with the provided winner information.
+     * Displays a winner dialog listing each winner's patterns and fan, and every seat's points.
      *
-     * @param winnerInfo Information about the winning order and scores.
+     * @param scores       the winners' scored hands, in the order they won
+     * @param seatNames    player names indexed by seat
+     * @param pointChanges each seat's points for the hand
      */
-    public void showWinner(String winnerInfo) {
-        JOptionPane.showMessageDialog(mainFrame, winnerInfo, "Game Over", JOptionPane.INFORMATION_MESSAGE);
+    public void showWinner(List<HandScore> scores, String[] seatNames, int[] pointChanges) {
+        StringBuilder sb = new StringBuilder();
+        for (HandScore score : scores) {
+            sb.append(seatNames[score.getWinner()]).append(" wins ")
+                    .append(score.isSelfDrawn() ? "by self-draw" : "on " + seatNames[score.getFromSeat()] + "'s discard")
+                    .append(" (").append(score.getWinningTile()).append(")\n")
+                    .append("    ").append(score.describe()).append('\n');
+        }
+        sb.append('\n');
+        for (int seat = 0; seat < seatNames.length; seat++) {
+            sb.append(seatNames[seat]).append(": ").append(pointChanges[seat] > 0 ? "+" : "")
+                    .append(pointChanges[seat]).append('\n');
+        }
+        JOptionPane.showMessageDialog(mainFrame, sb.toString(), "Game Over", JOptionPane.INFORMATION_MESSAGE);
     }
 
     /**
@@ -1,63 +1,66 @@
 package UI;
 
 import Core.Card;
+import Core.Claim;
 import Core.HumanPlayer;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import javax.swing.JLabel;
 
 /**
- * InputHandler is responsible for handling mouse events on card components.
- * It translates mouse clicks into actions for the human player, including:
+ * InputHandler is responsible for handling mouse events on the table.
+ * Clicks are hit-tested against the painted hand and translated into actions for the human player:
  * - First left-click: select a card (card moves upward).
  * - Second left-click (when already selected): confirm and discard the card.
  * - Right-click: cancel the card selection (card moves back to original position).
+ * - Left-click on a claim prompt (Peng, Gang, Hu or Pass): answer another seat's discard.
  */
 public class InputHandler extends MouseAdapter {
     private HumanPlayer humanPlayer;
+    private GamePanel table;
 
-    public InputHandler(HumanPlayer player) {
+    public InputHandler(HumanPlayer player, GamePanel table) {
         this.humanPlayer = player;
+        this.table = table;
     }
 
     @Override
     public void mouseClicked(MouseEvent e) {
-        Object source = e.getSource();
-        if (source instanceof JLabel) {
-            JLabel cardLabel = (JLabel) source;
-            // Retrieve the associated Card object stored as a client property.
-            Card card = (Card) cardLabel.getClientProperty("card");
-            if (card == null) {
-                return;
+        Claim claim = table.claimAt(e.getX(), e.getY());
+        if (claim != null) {
+            if (e.getButton() == MouseEvent.BUTTON1 && humanPlayer.confirmClaim(claim)) {
+                table.hideClaimPrompt();
             }
+            return;
+        }
+
+        int index = table.tileIndexAt(e.getX(), e.getY());
+        if (index < 0) {
+            return;
+        }
+        Card card = table.getHandCard(index);
 
-            // Left mouse button handling
-            if (e.getButton() == MouseEvent.BUTTON1) {
-                if (!card.isSelected()) {
-                    // First left-click: select the card
-                    humanPlayer.selectCard(card);
-                    // Animate the card upward by half its height
-                    cardLabel.setLocation(cardLabel.getX(), cardLabel.getY() - cardLabel.getHeight() / 2);
-                } else {
-                    // Second left-click when already selected: confirm discard
-                    humanPlayer.confirmDiscard(card);
-                    // Remove the card label from its parent container after discarding
-                    if (cardLabel.getParent() != null) {
-                        cardLabel.getParent().remove(cardLabel);
-                        cardLabel.getParent().revalidate();
-                        cardLabel.getParent().repaint();
-                    }
+        // Left mouse button handling
+        if (e.getButton() == MouseEvent.BUTTON1) {
+            if (table.getSelectedIndex() != index) {
+                // First left-click: select the card (raised by the table)
+                humanPlayer.selectCard(card);
+                table.setSelectedIndex(index);
+            } else {
+                // Second left-click when already selected: confirm discard.
+                // It is ignored unless the game is waiting for the human's discard.
+                if (!humanPlayer.confirmDiscard(card)) {
+                    return;
                 }
+                table.removeHandTile(index);
             }
-            // Right mouse button handling
-            else if (e.getButton() == MouseEvent.BUTTON3) {
-                if (card.isSelected()) {
-                    // Right-click cancels the selection
-                    humanPlayer.cancelSelection(card);
-                    // Reset the card label's position by moving it down half its height
-                    cardLabel.setLocation(cardLabel.getX(), cardLabel.getY() + cardLabel.getHeight() / 2);
-                }
+        }
+        // Right mouse button handling
+        else if (e.getButton() == MouseEvent.BUTTON3) {
+            if (table.getSelectedIndex() == index) {
+                // Right-click cancels the selection
+                humanPlayer.cancelSelection(card);
+                table.setSelectedIndex(-1);
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,33 +1,58 @@
 package UI;
 
+import Assets.AssetsManager;
 import Core.*;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.List;
 
 /**
  * MahjongGUI.java
  * Main GUI class combining Game, GameUI, and GamePanel to coordinate game logic and interface display.
  */
 public class MahjongGUI extends JFrame {
+    private static final long START_NANOS = System.nanoTime();
+    /** Default thinking time of the searching AI seats, per decision. */
+    public static final long DEFAULT_AI_BUDGET_MS = 600;
+
     private Game game;
     private GameUI gameUI;
     private GamePanel gamePanel;
+    private GameLoop gameLoop;
+    private boolean firstFrameReported;
 
     public MahjongGUI() {
-        // Initialize game logic core
+        this(DEFAULT_AI_BUDGET_MS);
+    }
+
+    /**
+     * @param aiBudgetMillis thinking time per decision of the searching AI seats, or 0 for the
+     *                       instant shanten-based AI
+     */
+    public MahjongGUI(long aiBudgetMillis) {
+        // Initialize game logic core; its event log also reports the startup timings.
         game = new Game();
+        if (aiBudgetMillis > 0) {
+            game.useSearchAI(aiBudgetMillis);
+        }
+        GameEventLog log = game.getEventLog();
+        log.addSink(new ConsoleEventSink(game.getSeatNames()));
+
+        // Shared, pre-scaled tile and icon images for all UI components.
+        // Decoding runs on background threads while the window is built; tiles show placeholders until ready.
+        AssetsManager assets = AssetsManager.getInstance();
+        assets.loadAssetsAsync().thenRun(() ->
+                log.publish(GameEvent.Type.ASSETS_LOADED, -1, -1, (int) elapsedMillis()));
 
         // Initialize UI controller
-        gameUI = new GameUI();
+        gameUI = new GameUI(assets);
         gameUI.initializeUI();
 
-        // Initialize graphical panel and bind to human player
+        // Initialize the painted table (hand and discards) and bind it to the human player
         HumanPlayer human = (HumanPlayer) game.getPlayers().get(0);
-        gamePanel = new GamePanel(human);
-        gamePanel.setBounds(100, 400, 600, 150);
+        gamePanel = new GamePanel(human, assets);
+        gamePanel.setBounds(0, 40, 800, 520);
         gameUI.getMainPanel().add(gamePanel);
 
         // Add main panel to this JFrame
@@ -39,28 +64,42 @@ public class MahjongGUI extends JFrame {
         this.setLocationRelativeTo(null);
         this.setVisible(true);
 
+        // Game turns run on the game-loop thread; the EDT only applies published updates.
+        gameLoop = new GameLoop(game, gameUI, gamePanel);
+
         // Add keyboard event: R key to restart the game
         this.addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
                 if (e.getKeyCode() == KeyEvent.VK_R) {
-                    System.out.println("Game restarted!");
-                    game.resetGame();
-                    gamePanel.updateHand(game.getPlayers().get(0).getHandCards());
-                    gameUI.updateRemainingCards(game.getDeck().remainingCards());
-                    gameUI.updateTurnIndicator(game.getCurrentTurn());
+                    game.getEventLog().publish(GameEvent.Type.RESTART, -1, -1, 0);
+                    gameLoop.restart();
                 }
             }
         });
 
         // Start the initial game
-        game.startGame();
-        gamePanel.updateHand(game.getPlayers().get(0).getHandCards());
-        gameUI.updateRemainingCards(game.getDeck().remainingCards());
-        gameUI.updateTurnIndicator(game.getCurrentTurn());
+        gameLoop.start();
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (!firstFrameReported) {
+            firstFrameReported = true;
+            game.getEventLog().publish(GameEvent.Type.FIRST_FRAME, -1, -1, (int) elapsedMillis());
+        }
+    }
+
+    private static long elapsedMillis() {
+        return (System.nanoTime() - START_NANOS) / 1_000_000;
     }
 
+    /**
+     * Usage: MahjongGUI [AI budget in ms, 0 for the instant AI]
+     */
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(MahjongGUI::new);
+        long budget = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_AI_BUDGET_MS;
+        SwingUtilities.invokeLater(() -> new MahjongGUI(budget));
     }
 }
@@ -0,0 +1,295 @@
+package Tools;
+
+import Core.Card;
+import Core.Fan;
+import Core.ScoreCalculator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Development tool, not part of the game: checks {@link ScoreCalculator} against a brute-force
+ * scorer that tries every way of splitting the hand into melds and a pair (and seven pairs) and
+ * keeps the best fan.
+ *
+ * Hands are built from random melds over one to three suits, with 1s and 9s drawn more often
+ * than chance, since hands that split more than one way are where the table's shape bits can
+ * go wrong. Some have exposed Pengs and Gangs, some are seven pairs, half are won on a discard,
+ * and one in eight has a tile moved so that losing hands are checked too.
+ *
+ * Usage: ScoreChecker [hands] [seed]
+ */
+public final class ScoreChecker {
+    /** Mismatching hands printed before the rest are only counted. */
+    private static final int MAX_EXAMPLES = 10;
+    /** Numbers within a suit to draw tiles from, 1s and 9s three times as often. */
+    private static final int[] TERMINAL_HEAVY = {0, 0, 0, 8, 8, 8, 1, 2, 3, 4, 5, 6, 7};
+    /** Added to a meld's tile id in the melds array to mark a Gang. */
+    private static final int GANG_FLAG = 0x100;
+
+    // Shapes of a split: all triplets, a terminal in every set, only 2, 5 and 8.
+    private static final int SHAPE_TRIPLETS = 1;
+    private static final int SHAPE_TERMINALS = 2;
+    private static final int SHAPE_258 = 4;
+    private static final int SHAPE_ALL = 7;
+
+    private final SplittableRandom random;
+    private final byte[] counts = new byte[Card.TYPES];
+    private final int[] melds = new int[4];
+    private final int[] used = new int[Card.TYPES];
+
+    private ScoreChecker(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public static void main(String[] args) {
+        long hands = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : new SplittableRandom().nextLong();
+        System.out.println("Seed " + seed);
+        long mismatches = new ScoreChecker(seed).run(hands);
+        System.out.println(hands + " hands, " + mismatches + " mismatches");
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    private long run(long hands) {
+        long mismatches = 0;
+        for (long i = 0; i < hands; i++) {
+            int meldCount = sample();
+            int situation = random.nextInt(8);
+            int extraTile = -1;
+            if ((situation & ScoreCalculator.SELF_DRAWN) == 0) {
+                do {
+                    extraTile = random.nextInt(Card.TYPES);
+                } while (counts[extraTile] == 0);
+            }
+            int expected = bruteForceFan(meldCount, situation);
+
+            long summary = ScoreCalculator.NO_MELDS;
+            for (int m = 0; m < meldCount; m++) {
+                summary = ScoreCalculator.addMeld(summary, melds[m] & ~GANG_FLAG, (melds[m] & GANG_FLAG) != 0);
+            }
+            if (extraTile >= 0) {
+                counts[extraTile]--;
+            }
+            int result = ScoreCalculator.evaluate(counts, 0, extraTile, summary, situation);
+            if (extraTile >= 0) {
+                counts[extraTile]++;
+            }
+
+            int actual = result == ScoreCalculator.NOT_A_WIN ? -1 : ScoreCalculator.fan(result);
+            if (actual != expected && mismatches++ < MAX_EXAMPLES) {
+                System.out.println("  " + describe(meldCount, extraTile, situation) + "expected " + expected
+                        + " fan, got " + (actual < 0 ? "no win" : ScoreCalculator.describe(result)));
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Scores the current hand by trying every split.
+     * @return the best fan, or -1 if the hand does not win
+     */
+    private int bruteForceFan(int meldCount, int situation) {
+        int suits = 0;
+        int meldShape = SHAPE_ALL;
+        int[] total = new int[Card.TYPES];
+        for (int t = 0; t < Card.TYPES; t++) {
+            total[t] = counts[t];
+            if (counts[t] > 0) {
+                suits |= 1 << t / 9;
+            }
+        }
+        for (int i = 0; i < meldCount; i++) {
+            int tile = melds[i] & ~GANG_FLAG;
+            total[tile] += (melds[i] & GANG_FLAG) != 0 ? 4 : 3;
+            suits |= 1 << tile / 9;
+            meldShape &= setShape(tile % 9, tile % 9);
+        }
+        int gens = 0;
+        for (int t = 0; t < Card.TYPES; t++) {
+            if (total[t] == 4) {
+                gens++;
+            }
+        }
+
+        // Every situation flag is worth one fan, and so is each of Qing Yi Se and Jin Gou Diao.
+        int common = Integer.bitCount(situation) + (Integer.bitCount(suits) == 1 ? Fan.QING_YI_SE.getFan() : 0)
+                + (meldCount == 4 ? Fan.JIN_GOU_DIAO.getFan() : 0);
+
+        int best = -1;
+        int[] hand = new int[Card.TYPES];
+        for (int t = 0; t < Card.TYPES; t++) {
+            hand[t] = counts[t];
+        }
+        int shapes = splits(hand, 0, 4 - meldCount, false, meldShape);
+        for (int shape = 0; shape <= SHAPE_ALL; shape++) {
+            if ((shapes >> shape & 1) == 0) {
+                continue;
+            }
+            int fan = 0;
+            if ((shape & SHAPE_TRIPLETS) != 0) {
+                fan += Fan.DUI_DUI_HU.getFan();
+                if ((shape & SHAPE_258) != 0) {
+                    fan += Fan.JIANG_DUI.getFan();
+                }
+            }
+            if ((shape & SHAPE_TERMINALS) != 0) {
+                fan += Fan.DAI_YAO_JIU.getFan();
+            }
+            best = Math.max(best, common + fan + gens);
+        }
+        if (meldCount == 0) {
+            boolean pairs = true;
+            for (int t = 0; t < Card.TYPES; t++) {
+                pairs &= counts[t] % 2 == 0;
+            }
+            if (pairs) {
+                int fan = gens > 0 ? Fan.LONG_QI_DUI.getFan() + gens - 1 : Fan.QI_DUI.getFan();
+                best = Math.max(best, common + fan);
+            }
+        }
+        return best;
+    }
+
+    // Shape of a set spanning numbers lo..hi of one suit (a triplet or pair has lo == hi).
+    private static int setShape(int lo, int hi) {
+        int shape = lo == hi ? SHAPE_TRIPLETS : 0;
+        if (lo == 0 || hi == 8) {
+            shape |= SHAPE_TERMINALS;
+        }
+        if (lo == hi && lo % 3 == 1) {
+            shape |= SHAPE_258;
+        }
+        return shape;
+    }
+
+    /**
+     * Returns a bit mask of the shapes (bit s set for shape s) of every complete split of the
+     * hand from tile t on.
+     */
+    private static int splits(int[] hand, int t, int sets, boolean pair, int shape) {
+        while (t < Card.TYPES && hand[t] == 0) {
+            t++;
+        }
+        if (t == Card.TYPES) {
+            return sets == 0 && pair ? 1 << shape : 0;
+        }
+        int n = t % 9;
+        int found = 0;
+        if (!pair && hand[t] >= 2) {
+            hand[t] -= 2;
+            found |= splits(hand, t, sets, true, shape & setShape(n, n));
+            hand[t] += 2;
+        }
+        if (sets > 0 && hand[t] >= 3) {
+            hand[t] -= 3;
+            found |= splits(hand, t, sets - 1, pair, shape & setShape(n, n));
+            hand[t] += 3;
+        }
+        if (sets > 0 && n <= 6 && hand[t + 1] > 0 && hand[t + 2] > 0) {
+            hand[t]--;
+            hand[t + 1]--;
+            hand[t + 2]--;
+            found |= splits(hand, t, sets - 1, pair, shape & setShape(n, n + 2));
+            hand[t]++;
+            hand[t + 1]++;
+            hand[t + 2]++;
+        }
+        return found;
+    }
+
+    /**
+     * Fills counts with a concealed hand of 14 - 3 * melds tiles and melds with the exposed
+     * melds, and returns the number of melds.
+     */
+    private int sample() {
+        Arrays.fill(used, 0);
+        Arrays.fill(counts, (byte) 0);
+        int suits = 1 + random.nextInt(7);
+        int meldCount = random.nextInt(4) == 0 ? random.nextInt(5) : 0;
+        if (meldCount == 0 && random.nextInt(4) == 0) {
+            for (int p = 0; p < 7; p++) {
+                add(randomTile(suits, 2), 2);
+            }
+        } else {
+            for (int m = 0; m < meldCount; m++) {
+                boolean gang = random.nextInt(3) == 0;
+                int t = randomTile(suits, gang ? 4 : 3);
+                used[t] += gang ? 4 : 3;
+                melds[m] = t | (gang ? GANG_FLAG : 0);
+            }
+            for (int s = meldCount; s < 4; s++) {
+                int t = random.nextBoolean() ? randomSequence(suits) : -1;
+                if (t < 0) {
+                    add(randomTile(suits, 3), 3);
+                } else {
+                    add(t, 1);
+                    add(t + 1, 1);
+                    add(t + 2, 1);
+                }
+            }
+            add(randomTile(suits, 2), 2);
+        }
+        if (random.nextInt(8) == 0) {
+            int from;
+            int to;
+            do {
+                from = random.nextInt(Card.TYPES);
+            } while (counts[from] == 0);
+            do {
+                to = random.nextInt(Card.TYPES);
+            } while (to == from || used[to] == Card.COPIES);
+            counts[from]--;
+            counts[to]++;
+        }
+        return meldCount;
+    }
+
+    private void add(int tile, int n) {
+        used[tile] += n;
+        counts[tile] += n;
+    }
+
+    // The first tile of a sequence with room in the chosen suits, or -1 if none turned up.
+    private int randomSequence(int suits) {
+        for (int attempt = 0; attempt < 16; attempt++) {
+            int t = randomTile(suits, 1);
+            if (t % 9 <= 6 && used[t + 1] < Card.COPIES && used[t + 2] < Card.COPIES) {
+                return t;
+            }
+        }
+        return -1;
+    }
+
+    // A tile from the chosen suits, 1s and 9s more often, with room for n more copies.
+    private int randomTile(int suits, int n) {
+        while (true) {
+            int suit = random.nextInt(3);
+            if ((suits >> suit & 1) == 0) {
+                continue;
+            }
+            int t = suit * 9 + TERMINAL_HEAVY[random.nextInt(TERMINAL_HEAVY.length)];
+            if (used[t] + n <= Card.COPIES) {
+                return t;
+            }
+        }
+    }
+
+    private String describe(int meldCount, int extraTile, int situation) {
+        StringBuilder sb = new StringBuilder();
+        for (int t = 0; t < Card.TYPES; t++) {
+            for (int k = 0; k < counts[t]; k++) {
+                sb.append(Card.of(t)).append(' ');
+            }
+        }
+        for (int m = 0; m < meldCount; m++) {
+            sb.append((melds[m] & GANG_FLAG) != 0 ? "GANG(" : "PENG(").append(Card.of(melds[m] & ~GANG_FLAG)).append(") ");
+        }
+        if (extraTile >= 0) {
+            sb.append("on ").append(Card.of(extraTile)).append(' ');
+        }
+        return sb.append("situation ").append(situation).append(": ").toString();
+    }
+}